@@ -25,17 +25,29 @@ package global.goldenera.wallet.api.core.v1.device;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.api.core.v1.device.dtos.DeviceAddressesPatchDtoV1;
 import global.goldenera.wallet.api.core.v1.device.dtos.DeviceDtoV1;
 import global.goldenera.wallet.api.core.v1.device.dtos.DeviceRegistrationRequestDtoV1;
 import global.goldenera.wallet.api.core.v1.device.mappers.DeviceMapper;
 import global.goldenera.wallet.entities.Device;
 import global.goldenera.wallet.service.business.DeviceBusinessService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -62,4 +74,39 @@ public class DeviceApiV1 {
         return deviceMapper.toDto(registered);
     }
 
+    @PostMapping("/heartbeat")
+    @Operation(summary = "Device heartbeat", description = "Mark the device as active")
+    public void heartbeat(
+            @Parameter(description = "Client identifier of the device") @RequestParam UUID clientIdentifier) {
+        log.debug("Heartbeat of device with client identifier: {}", clientIdentifier);
+        deviceBusinessService.heartbeat(clientIdentifier);
+    }
+
+    @GetMapping("/{clientIdentifier}/addresses")
+    @Operation(summary = "Get tracked addresses", description = "Get the addresses tracked by the device")
+    public List<Address> getAddresses(
+            @Parameter(description = "Client identifier of the device") @PathVariable UUID clientIdentifier) {
+        log.debug("Getting tracked addresses of device with client identifier: {}", clientIdentifier);
+        return deviceBusinessService.getAddresses(clientIdentifier);
+    }
+
+    @PutMapping("/{clientIdentifier}/addresses")
+    @Operation(summary = "Replace tracked addresses", description = "Replace the addresses tracked by the device")
+    public List<Address> replaceAddresses(
+            @Parameter(description = "Client identifier of the device") @PathVariable UUID clientIdentifier,
+            @Parameter(description = "Addresses to track") @RequestBody Set<Address> addresses) {
+        log.info("Replacing tracked addresses of device with client identifier: {}, {} addresses",
+                clientIdentifier, addresses.size());
+        return deviceBusinessService.replaceAddresses(clientIdentifier, addresses);
+    }
+
+    @PatchMapping("/{clientIdentifier}/addresses")
+    @Operation(summary = "Update tracked addresses", description = "Add and remove addresses tracked by the device")
+    public List<Address> patchAddresses(
+            @Parameter(description = "Client identifier of the device") @PathVariable UUID clientIdentifier,
+            @Parameter(description = "Addresses to add and remove") @RequestBody DeviceAddressesPatchDtoV1 request) {
+        log.info("Updating tracked addresses of device with client identifier: {}", clientIdentifier);
+        return deviceBusinessService.patchAddresses(clientIdentifier, request.add(), request.remove());
+    }
+
 }
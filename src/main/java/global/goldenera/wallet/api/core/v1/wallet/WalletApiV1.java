@@ -25,25 +25,37 @@ package global.goldenera.wallet.api.core.v1.wallet;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.MempoolRecommendedFeesDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.TokenDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.TxStatusDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.TxSubmitDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferPageDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletBalanceDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletChangeDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletDeltaDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletSnapshotDtoV1;
 import global.goldenera.wallet.client.node.model.v1.BulkMemTransferPageRequestV1.TransferTypeEnum;
 import global.goldenera.wallet.client.node.model.v1.MempoolResult;
+import global.goldenera.wallet.domain.AddressSet;
 import global.goldenera.wallet.service.business.WalletBusinessService;
+import global.goldenera.wallet.service.stream.DeltaSyncService;
+import global.goldenera.wallet.service.stream.LongPollService;
+import global.goldenera.wallet.service.stream.SseStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -63,6 +75,9 @@ import lombok.extern.slf4j.Slf4j;
 public class WalletApiV1 {
 
     WalletBusinessService walletBusinessService;
+    SseStreamService sseStreamService;
+    LongPollService longPollService;
+    DeltaSyncService deltaSyncService;
 
     @GetMapping("/balances")
     @Operation(summary = "Get wallet balances", description = "Get balances for multiple addresses")
@@ -72,7 +87,7 @@ public class WalletApiV1 {
 
         log.debug("Getting balances for {} addresses", addresses.size());
 
-        return walletBusinessService.getBalances(addresses, tokenAddresses != null ? tokenAddresses : Set.of());
+        return walletBusinessService.getBalances(AddressSet.of(addresses), AddressSet.of(tokenAddresses));
     }
 
     @GetMapping("/transfers")
@@ -86,10 +101,86 @@ public class WalletApiV1 {
 
         log.debug("Getting transfers for {} addresses, page {}/{}", addresses.size(), pageNumber, pageSize);
 
-        return walletBusinessService.getTransfers(addresses, tokenAddresses != null ? tokenAddresses : Set.of(),
+        return walletBusinessService.getTransfers(AddressSet.of(addresses), AddressSet.of(tokenAddresses),
                 pageNumber, pageSize, transferType);
     }
 
+    @GetMapping("/balances/wait")
+    @Operation(summary = "Wait for balance changes", description = "Long-poll variant of /balances, returns once the addresses changed after sinceHeight or pendingVersion, or the wait elapsed")
+    public WalletChangeDtoV1<List<WalletBalanceDtoV1>> waitForBalances(
+            @Parameter(description = "Wallet addresses") @RequestParam Set<Address> addresses,
+            @Parameter(description = "Token addresses (optional, null for native token)") @RequestParam(required = false) Set<Address> tokenAddresses,
+            @Parameter(description = "Height returned by the previous request") @RequestParam(required = false) Long sinceHeight,
+            @Parameter(description = "Pending version returned by the previous request") @RequestParam(required = false) Long pendingVersion,
+            @Parameter(description = "Maximum wait in seconds") @RequestParam(defaultValue = "25") int waitSeconds) {
+
+        log.debug("Waiting for balance changes of {} addresses since height {}", addresses.size(), sinceHeight);
+
+        AddressSet walletAddresses = AddressSet.of(addresses);
+        AddressSet tokens = AddressSet.of(tokenAddresses);
+        return longPollService.await(walletAddresses, sinceHeight, pendingVersion, Duration.ofSeconds(waitSeconds),
+                () -> walletBusinessService.getBalances(walletAddresses, tokens));
+    }
+
+    @GetMapping("/transfers/wait")
+    @Operation(summary = "Wait for transfer changes", description = "Long-poll variant of /transfers, returns once the addresses changed after sinceHeight or pendingVersion, or the wait elapsed")
+    public WalletChangeDtoV1<UnifiedTransferPageDtoV1> waitForTransfers(
+            @Parameter(description = "Wallet addresses") @RequestParam Set<Address> addresses,
+            @Parameter(description = "Token addresses (optional, null for all tokens)") @RequestParam(required = false) Set<Address> tokenAddresses,
+            @Parameter(description = "Transfer type (optional, null for all types)") @RequestParam(required = false) TransferTypeEnum transferType,
+            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int pageNumber,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int pageSize,
+            @Parameter(description = "Height returned by the previous request") @RequestParam(required = false) Long sinceHeight,
+            @Parameter(description = "Pending version returned by the previous request") @RequestParam(required = false) Long pendingVersion,
+            @Parameter(description = "Maximum wait in seconds") @RequestParam(defaultValue = "25") int waitSeconds) {
+
+        log.debug("Waiting for transfer changes of {} addresses since height {}", addresses.size(), sinceHeight);
+
+        AddressSet walletAddresses = AddressSet.of(addresses);
+        AddressSet tokens = AddressSet.of(tokenAddresses);
+        return longPollService.await(walletAddresses, sinceHeight, pendingVersion, Duration.ofSeconds(waitSeconds),
+                () -> walletBusinessService.getTransfers(walletAddresses, tokens, pageNumber, pageSize,
+                        transferType));
+    }
+
+    @GetMapping("/snapshot")
+    @Operation(summary = "Get wallet snapshot", description = "Get balances, the first transfer page, tokens, recommended fees and next nonces in one request")
+    public WalletSnapshotDtoV1 getSnapshot(
+            @Parameter(description = "Wallet addresses") @RequestParam Set<Address> addresses,
+            @Parameter(description = "Token addresses (optional, null for all tokens)") @RequestParam(required = false) Set<Address> tokenAddresses,
+            @Parameter(description = "Size of the first transfer page") @RequestParam(defaultValue = "20") int pageSize) {
+
+        log.debug("Getting snapshot for {} addresses", addresses.size());
+
+        return walletBusinessService.getSnapshot(AddressSet.of(addresses), AddressSet.of(tokenAddresses), pageSize);
+    }
+
+    @GetMapping("/sync")
+    @Operation(summary = "Sync wallet changes", description = "Get only the balances and transfers that changed since the checkpoint of the previous sync")
+    public WalletDeltaDtoV1 sync(
+            @Parameter(description = "Wallet addresses") @RequestParam Set<Address> addresses,
+            @Parameter(description = "Token addresses (optional, null for all tokens)") @RequestParam(required = false) Set<Address> tokenAddresses,
+            @Parameter(description = "Height of the previous sync (optional, full state without)") @RequestParam(required = false) Long sinceHeight,
+            @Parameter(description = "Pending version of the previous sync (optional, full state without)") @RequestParam(required = false) Long pendingVersion,
+            @Parameter(description = "Maximum number of transfers") @RequestParam(defaultValue = "20") int pageSize) {
+
+        log.debug("Syncing {} addresses since height {}, pending version {}", addresses.size(), sinceHeight,
+                pendingVersion);
+
+        return deltaSyncService.sync(AddressSet.of(addresses), AddressSet.of(tokenAddresses), sinceHeight,
+                pendingVersion, pageSize);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream wallet updates", description = "Server-sent events for new pending, confirmed and dropped transfers, balance changes of the given addresses and new blocks")
+    public SseEmitter streamUpdates(
+            @Parameter(description = "Wallet addresses") @RequestParam Set<Address> addresses) {
+
+        log.debug("Opening update stream for {} addresses", addresses.size());
+
+        return sseStreamService.open(AddressSet.of(addresses));
+    }
+
     @GetMapping("/tokens")
     @Operation(summary = "Get tokens", description = "Get paginated list of available tokens")
     public List<TokenDtoV1> getTokens() {
@@ -125,6 +216,16 @@ public class WalletApiV1 {
         return walletBusinessService.submitTransaction(input.hexData());
     }
 
+    @GetMapping("/tx-status")
+    @Operation(summary = "Get transaction statuses", description = "Get the status of submitted transactions by hash")
+    public List<TxStatusDtoV1> getTxStatuses(
+            @Parameter(description = "Transaction hashes") @RequestParam Set<Hash> hashes) {
+
+        log.debug("Getting status of {} transactions", hashes.size());
+
+        return walletBusinessService.getTxStatuses(hashes);
+    }
+
     @GetMapping("/mempool-recommended-fees")
     @Operation(summary = "Get mempool recommended fees", description = "Get mempool recommended fees")
     public MempoolRecommendedFeesDtoV1 getMempoolRecommendedFees() {
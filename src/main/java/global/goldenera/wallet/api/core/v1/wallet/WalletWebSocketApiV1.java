@@ -0,0 +1,221 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.api.core.v1.wallet;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletSubscriptionRequestDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.properties.StreamProperties;
+import global.goldenera.wallet.service.stream.BufferedListener;
+import global.goldenera.wallet.service.stream.WalletUpdateService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * WebSocket carrying wallet updates for any number of addresses over one
+ * connection, at {@code /api/core/v1/wallet/ws}.
+ * <p>
+ * Clients send {@link WalletSubscriptionRequestDtoV1} messages to change the
+ * watched addresses. Updates are sent as JSON text frames, or as compact
+ * binary frames when connecting with {@code ?format=binary}. Each connection
+ * is written by its own virtual thread that is parked while idle.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WalletWebSocketApiV1 extends TextWebSocketHandler {
+
+    public static final String PATH = "/api/core/v1/wallet/ws";
+
+    private static final int HAS_ADDRESS = 1;
+    private static final int HAS_TOKEN_ADDRESS = 1 << 1;
+    private static final int HAS_TX_HASH = 1 << 2;
+    private static final int HAS_BLOCK_HEIGHT = 1 << 3;
+    private static final int HAS_BLOCK_HASH = 1 << 4;
+
+    private record Connection(WebSocketSession session, BufferedListener listener, Set<Address> watched,
+            boolean binary, Thread writer) {
+    }
+
+    ObjectMapper objectMapper;
+    StreamProperties streamProperties;
+    WalletUpdateService walletUpdateService;
+    Map<String, Connection> connections = new ConcurrentHashMap<>();
+    AtomicInteger connectionCount = new AtomicInteger();
+
+    public WalletWebSocketApiV1(ObjectMapper objectMapper, StreamProperties streamProperties,
+            WalletUpdateService walletUpdateService, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.streamProperties = streamProperties;
+        this.walletUpdateService = walletUpdateService;
+        Gauge.builder("ge.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open push connections")
+                .tag("transport", "websocket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        boolean binary = session.getUri() != null && "binary".equals(UriComponentsBuilder.fromUri(session.getUri())
+                .build().getQueryParams().getFirst("format"));
+        BufferedListener listener = new BufferedListener(streamProperties.getQueueCapacity());
+        walletUpdateService.addListener(listener, List.of());
+        Thread writer = Thread.ofVirtual().name("ws-stream").unstarted(() -> write(session, listener, binary));
+        connections.put(session.getId(),
+                new Connection(session, listener, ConcurrentHashMap.newKeySet(), binary, writer));
+        connectionCount.incrementAndGet();
+        writer.start();
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        WalletSubscriptionRequestDtoV1 request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), WalletSubscriptionRequestDtoV1.class);
+        } catch (IOException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Invalid subscription message"));
+            return;
+        }
+        if (request.action() == null || request.addresses() == null) {
+            session.close(CloseStatus.BAD_DATA.withReason("Action and addresses are required"));
+            return;
+        }
+        synchronized (connection) {
+            List<Address> changed = new ArrayList<>();
+            if (request.action() == WalletSubscriptionRequestDtoV1.Action.SUBSCRIBE) {
+                for (Address address : request.addresses()) {
+                    if (!connection.watched().contains(address)) {
+                        changed.add(address);
+                    }
+                }
+                if (connection.watched().size() + changed.size() > streamProperties.getMaxAddressesPerConnection()) {
+                    session.close(CloseStatus.POLICY_VIOLATION.withReason("Too many addresses, at most "
+                            + streamProperties.getMaxAddressesPerConnection()));
+                    return;
+                }
+                connection.watched().addAll(changed);
+                walletUpdateService.watch(connection.listener(), changed);
+            } else {
+                for (Address address : request.addresses()) {
+                    if (connection.watched().remove(address)) {
+                        changed.add(address);
+                    }
+                }
+                walletUpdateService.unwatch(connection.listener(), changed);
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection == null) {
+            return;
+        }
+        connection.writer().interrupt();
+        synchronized (connection) {
+            walletUpdateService.removeListener(connection.listener(), connection.watched());
+        }
+        connectionCount.decrementAndGet();
+    }
+
+    private void write(WebSocketSession session, BufferedListener listener, boolean binary) {
+        try {
+            while (!Thread.currentThread().isInterrupted() && session.isOpen()) {
+                WalletUpdateDtoV1 update = listener.poll(streamProperties.getHeartbeatInterval());
+                if (update == null) {
+                    session.sendMessage(new PingMessage());
+                } else if (binary) {
+                    session.sendMessage(new BinaryMessage(encode(update)));
+                } else {
+                    session.sendMessage(new TextMessage(objectMapper.writeValueAsString(update)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Wallet WebSocket {} closed: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Binary frame: update type ordinal, presence bitmask, then the present
+     * fields in declaration order. Addresses take 20 bytes, hashes 32, the
+     * block height 8.
+     */
+    static ByteBuffer encode(WalletUpdateDtoV1 update) {
+        int presence = (update.address() != null ? HAS_ADDRESS : 0)
+                | (update.tokenAddress() != null ? HAS_TOKEN_ADDRESS : 0)
+                | (update.txHash() != null ? HAS_TX_HASH : 0)
+                | (update.blockHeight() != null ? HAS_BLOCK_HEIGHT : 0)
+                | (update.blockHash() != null ? HAS_BLOCK_HASH : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 20 + 20 + 32 + 8 + 32);
+        buffer.put((byte) update.type().ordinal());
+        buffer.put((byte) presence);
+        if (update.address() != null) {
+            buffer.put(update.address().toArrayUnsafe());
+        }
+        if (update.tokenAddress() != null) {
+            buffer.put(update.tokenAddress().toArrayUnsafe());
+        }
+        if (update.txHash() != null) {
+            buffer.put(update.txHash().toArrayUnsafe());
+        }
+        if (update.blockHeight() != null) {
+            buffer.putLong(update.blockHeight());
+        }
+        if (update.blockHash() != null) {
+            buffer.put(update.blockHash().toArrayUnsafe());
+        }
+        return buffer.flip();
+    }
+}
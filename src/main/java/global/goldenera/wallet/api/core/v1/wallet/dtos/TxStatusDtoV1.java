@@ -0,0 +1,46 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.api.core.v1.wallet.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TxStatusDtoV1(
+        /** Transaction hash */
+        Hash txHash,
+        /** Transaction status */
+        TxStatus status,
+        /** Block height (only for confirmed) */
+        Long blockHeight,
+        /** Block hash (only for confirmed) */
+        Hash blockHash,
+        /** Number of confirmations (only for confirmed) */
+        Long confirmations) {
+
+    public enum TxStatus {
+        PENDING, CONFIRMED, DROPPED, REPLACED, UNKNOWN
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.api.core.v1.wallet.dtos;
+
+import java.util.List;
+import java.util.Set;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+
+/**
+ * Changes of a wallet since a client checkpoint.
+ */
+public record WalletDeltaDtoV1(
+        /** True if the checkpoint could not be served, the delta then holds the full state */
+        boolean full,
+        /** Checkpoint height for the next sync */
+        Long height,
+        /** Checkpoint pending version for the next sync */
+        long pendingVersion,
+        /** Balances that changed */
+        List<WalletBalanceDtoV1> balances,
+        /** New pending and newly confirmed transfers */
+        List<UnifiedTransferDtoV1> transfers,
+        /** Pending transfers that were confirmed, dropped or replaced */
+        Set<Hash> removedPending) {
+}
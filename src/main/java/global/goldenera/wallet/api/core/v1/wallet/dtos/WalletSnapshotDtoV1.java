@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.api.core.v1.wallet.dtos;
+
+import java.util.List;
+
+import global.goldenera.cryptoj.datatypes.Address;
+
+/**
+ * Everything the wallet screen shows on open, in one response.
+ */
+public record WalletSnapshotDtoV1(
+        /** Chain height the snapshot was loaded at */
+        Long height,
+        /** Balances adjusted for pending outgoing transfers */
+        List<WalletBalanceDtoV1> balances,
+        /** First page of the transfer history */
+        UnifiedTransferPageDtoV1 transfers,
+        /** All tokens */
+        List<TokenDtoV1> tokens,
+        /** Recommended fees of the mempool */
+        MempoolRecommendedFeesDtoV1 recommendedFees,
+        /** Next nonce of each wallet address */
+        List<NextNonce> nextNonces) {
+
+    public record NextNonce(
+            Address address,
+            Long nextNonce) {
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.api.core.v1.wallet.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+
+/**
+ * Change pushed to wallet clients. Carries only what changed, clients fetch
+ * the details through the regular endpoints.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WalletUpdateDtoV1(
+        /** Kind of change */
+        UpdateType type,
+        /** Affected wallet address (null for NEW_BLOCK and RESYNC) */
+        Address address,
+        /** Token contract address of the transfer */
+        Address tokenAddress,
+        /** Transaction hash */
+        Hash txHash,
+        /** Block height (NEW_BLOCK and CONFIRMED) */
+        Long blockHeight,
+        /** Block hash (only for NEW_BLOCK) */
+        Hash blockHash) {
+
+    public enum UpdateType {
+        NEW_PENDING, CONFIRMED, DROPPED, BALANCE_CHANGED, NEW_BLOCK,
+        /** Updates were lost, clients should refetch everything */
+        RESYNC
+    }
+}
@@ -25,25 +25,32 @@ package global.goldenera.wallet.api.core.v1.webhook;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
-import global.goldenera.wallet.client.node.model.v1.BlockchainBlockHeaderDtoV1;
-import global.goldenera.wallet.client.node.model.v1.BlockchainTxDtoV1;
 import global.goldenera.wallet.components.WebhookSignatureVerifier;
+import global.goldenera.wallet.components.WebhookSignatureVerifier.StreamingVerification;
 import global.goldenera.wallet.exceptions.GERuntimeException;
+import global.goldenera.wallet.properties.WebhookIngestionProperties;
+import global.goldenera.wallet.service.webhook.WebhookIngestionService;
+import global.goldenera.wallet.service.webhook.WebhookMetrics;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -57,44 +64,135 @@ public class NodeWebhookApiV1 {
 
     ObjectMapper objectMapper;
     WebhookSignatureVerifier webhookSignatureVerifier;
+    WebhookIngestionService webhookIngestionService;
+    WebhookMetrics webhookMetrics;
+    WebhookIngestionProperties webhookIngestionProperties;
 
+    /**
+     * Thrown when a delivery exceeds the body size or event count limit.
+     */
+    private static final class PayloadTooLargeException extends IOException {
+        PayloadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Receives a webhook delivery. The body is streamed once: every byte goes
+     * into the HMAC and the JSON parser at the same time. Parsed events are
+     * staged and only released to the ingestion queue after the signature has
+     * been verified.
+     */
     @PostMapping("/handle")
     public ResponseEntity<String> receiveWebhook(
             @RequestHeader(value = "X-Webhook-Timestamp") String timestamp,
             @RequestHeader(value = "X-Webhook-Signature") String signature,
-            @RequestBody byte[] rawBody) {
-        try {
-            webhookSignatureVerifier.verify(rawBody, timestamp, signature);
-
-            List<WebhookEventDtoV1> events = objectMapper.readValue(rawBody, new TypeReference<>() {
-            });
-            events.forEach(this::handleEvent);
-            return ResponseEntity.ok("Processed");
+            @RequestHeader(value = "Content-Length", required = false) Long contentLength,
+            InputStream body) {
+        long receivedAt = System.nanoTime();
+        long maxBodySize = webhookIngestionProperties.getMaxBodySize().toBytes();
+        if (contentLength != null && contentLength > maxBodySize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Payload too large");
+        }
+        try (StreamingVerification verification = webhookSignatureVerifier.start(timestamp, signature)) {
+            InputStream verifiedBody = verification.wrap(limit(body, maxBodySize));
+
+            List<WebhookEventDtoV1> staged;
+            try {
+                staged = parseEvents(verifiedBody);
+            } catch (PayloadTooLargeException e) {
+                // Refused unread, there is nothing to authenticate
+                throw e;
+            } catch (IOException e) {
+                // Invalid JSON from an unauthenticated sender is an authentication failure
+                drain(verifiedBody);
+                verification.verify();
+                throw e;
+            }
+            drain(verifiedBody);
+            verification.verify();
+
+            webhookMetrics.recordDelivery(staged);
+            if (!webhookIngestionService.enqueue(staged, receivedAt)) {
+                log.warn("Webhook queue full, refusing delivery of {} events", staged.size());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Queue full");
+            }
+            return ResponseEntity.ok("Accepted");
         } catch (GERuntimeException e) {
+            webhookMetrics.recordSignatureFailure();
             log.warn("Security check failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
+        } catch (PayloadTooLargeException e) {
+            log.warn("Webhook delivery refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Payload too large");
         } catch (IOException e) {
+            webhookMetrics.recordDeserializationFailure();
             log.error("Deserialization failed", e);
             return ResponseEntity.badRequest().body("Invalid JSON structure");
         }
     }
 
-    private void handleEvent(WebhookEventDtoV1 event) {
-        switch (event) {
-            case WebhookEventDtoV1.NewBlockEvent newBlock -> {
-                BlockchainBlockHeaderDtoV1 header = newBlock.data();
-
-                // log.info("New Block Received: {}", header.getMetadata());
+    private List<WebhookEventDtoV1> parseEvents(InputStream body) throws IOException {
+        List<WebhookEventDtoV1> events = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of webhook events");
+            }
+            int maxEvents = webhookIngestionProperties.getMaxEventsPerDelivery();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (events.size() == maxEvents) {
+                    throw new PayloadTooLargeException("More than " + maxEvents + " events in one delivery");
+                }
+                events.add(objectMapper.readValue(parser, WebhookEventDtoV1.class));
             }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of webhook events");
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Fails the read once more than the given number of bytes came in, also
+     * when the request has no or a false Content-Length.
+     */
+    private static InputStream limit(InputStream body, long maxBytes) {
+        return new FilterInputStream(body) {
+
+            long remaining = maxBytes;
 
-            case WebhookEventDtoV1.AddressActivityEvent activity -> {
-                BlockchainTxDtoV1 tx = activity.data();
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count(1);
+                }
+                return b;
+            }
 
-                // log.info("Transaction Activity: {}", tx.getMetadata());
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    count(n);
+                }
+                return n;
             }
-            default -> {
-                // log.warn("Unknown event type: {}", event);
+
+            private void count(int n) throws PayloadTooLargeException {
+                remaining -= n;
+                if (remaining < 0) {
+                    throw new PayloadTooLargeException("Body larger than " + maxBytes + " bytes");
+                }
             }
-        }
+        };
+    }
+
+    /**
+     * Reads the rest of the body, so the HMAC covers all of it.
+     */
+    private static void drain(InputStream body) throws IOException {
+        body.transferTo(OutputStream.nullOutputStream());
     }
 }
@@ -25,12 +25,18 @@ package global.goldenera.wallet.components;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -50,8 +56,15 @@ public class WebhookSignatureVerifier {
 
     private static final String HMAC_ALGORITHM = "HmacSHA256";
     private static final long TOLERANCE_IN_SECONDS = 300;
+    private static final int MAX_POOLED_MACS = 64;
 
     byte[] secretKeyBytes;
+    /**
+     * Initialized engines ready for reuse. A pool rather than a ThreadLocal, as
+     * requests run on virtual threads that are never reused.
+     */
+    Queue<Mac> macPool = new ConcurrentLinkedQueue<>();
+    AtomicInteger pooledMacs = new AtomicInteger();
 
     public WebhookSignatureVerifier(NodeProperties nodeProperties) {
         if (nodeProperties.getWebhookSecretKey() == null || nodeProperties.getWebhookSecretKey().isBlank()) {
@@ -74,19 +87,131 @@ public class WebhookSignatureVerifier {
      *             if verification fails.
      */
     public void verify(byte[] payloadBody, String timestamp, String signature) {
+        StreamingVerification verification = start(timestamp, signature);
+        verification.mac.update(payloadBody);
+        verification.verify();
+    }
+
+    /**
+     * Starts verification of a request body that is read as a stream.
+     * Headers and timestamp are checked right away; the body is fed into the
+     * HMAC while it is read through {@link StreamingVerification#wrap}.
+     *
+     * @throws GEValidationException
+     *             if headers are missing or the timestamp is out of tolerance.
+     */
+    public StreamingVerification start(String timestamp, String signature) {
         if (timestamp == null || signature == null) {
             throw new GEValidationException("Missing required webhook headers (Timestamp or Signature)");
         }
 
         verifyTimestamp(timestamp);
 
-        String calculatedSignature = calculateSignature(payloadBody, timestamp);
+        byte[] expectedSignature;
+        try {
+            expectedSignature = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            throw new GEValidationException("Invalid webhook signature encoding");
+        }
+
+        Mac mac = borrowMac();
+        mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) '.');
+        return new StreamingVerification(mac, expectedSignature);
+    }
 
-        if (!MessageDigest.isEqual(
-                signature.getBytes(StandardCharsets.UTF_8),
-                calculatedSignature.getBytes(StandardCharsets.UTF_8))) {
-            log.warn("Invalid webhook signature. Received: {}, Calculated: {}", signature, calculatedSignature);
-            throw new GEValidationException("Invalid webhook signature");
+    /**
+     * HMAC over a request body that is being streamed.
+     * Nothing read through {@link #wrap} may be acted upon before
+     * {@link #verify} returned. Closing returns the engine to the pool, also
+     * when the body could not be read to the end.
+     */
+    public final class StreamingVerification implements AutoCloseable {
+
+        private final Mac mac;
+        private final byte[] expectedSignature;
+        private boolean closed;
+
+        private StreamingVerification(Mac mac, byte[] expectedSignature) {
+            this.mac = mac;
+            this.expectedSignature = expectedSignature;
+        }
+
+        /**
+         * Returns a stream that adds every byte read from the body to the HMAC.
+         */
+        public InputStream wrap(InputStream body) {
+            return new FilterInputStream(body) {
+
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        mac.update((byte) b);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        mac.update(b, off, n);
+                    }
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    byte[] buffer = new byte[(int) Math.min(n, 8192)];
+                    long skipped = 0;
+                    while (skipped < n) {
+                        int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                        if (read < 0) {
+                            break;
+                        }
+                        skipped += read;
+                    }
+                    return skipped;
+                }
+
+                @Override
+                public boolean markSupported() {
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Compares the HMAC of everything read so far with the signature header.
+         *
+         * @throws GEValidationException
+         *             if the signature does not match.
+         */
+        public void verify() {
+            byte[] calculatedSignature;
+            try {
+                calculatedSignature = mac.doFinal();
+            } finally {
+                close();
+            }
+            if (!MessageDigest.isEqual(expectedSignature, calculatedSignature)) {
+                log.warn("Invalid webhook signature. Received: {}, Calculated: {}",
+                        Base64.getEncoder().encodeToString(expectedSignature),
+                        Base64.getEncoder().encodeToString(calculatedSignature));
+                throw new GEValidationException("Invalid webhook signature");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Drops a partial HMAC left by a body that was not read to the end
+            mac.reset();
+            returnMac(mac);
         }
     }
 
@@ -104,18 +229,31 @@ public class WebhookSignatureVerifier {
         }
     }
 
-    private String calculateSignature(byte[] payloadBody, String timestamp) {
+    private Mac borrowMac() {
+        Mac mac = macPool.poll();
+        if (mac == null) {
+            return initMac();
+        }
+        pooledMacs.decrementAndGet();
+        return mac;
+    }
+
+    private void returnMac(Mac mac) {
+        if (pooledMacs.incrementAndGet() <= MAX_POOLED_MACS) {
+            macPool.offer(mac);
+        } else {
+            pooledMacs.decrementAndGet();
+        }
+    }
+
+    private Mac initMac() {
         try {
             Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKeyBytes, HMAC_ALGORITHM);
-            mac.init(secretKeySpec);
-            mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
-            mac.update((byte) '.');
-            byte[] signatureBytes = mac.doFinal(payloadBody);
-            return Base64.getEncoder().encodeToString(signatureBytes);
+            mac.init(new SecretKeySpec(secretKeyBytes, HMAC_ALGORITHM));
+            return mac;
         } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             log.error("Crypto algorithm not found or key invalid", e);
             throw new GERuntimeException("Error calculating HMAC signature", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -25,11 +25,15 @@ package global.goldenera.wallet.config;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -42,7 +46,7 @@ import lombok.experimental.FieldDefaults;
 @EnableCaching
 @AllArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
     public static final String SHORT_LIVED = "SHORT_LIVED";
     public static final String MEDIUM_LIVED = "MEDIUM_LIVED";
@@ -95,7 +99,24 @@ public class CacheConfig {
         }
     }
 
+    /**
+     * Cache key of a cached node call.
+     * The cache regions are shared by many methods of many beans, so the
+     * declaring class and the method name are part of the key to keep calls with
+     * equal arguments apart.
+     */
+    public record MethodKey(Class<?> type, String method, List<Object> params) {
+    }
+
+    @Bean
+    @Override
+    public KeyGenerator keyGenerator() {
+        return (target, method, params) -> new MethodKey(method.getDeclaringClass(), method.getName(),
+                Arrays.asList(params.clone()));
+    }
+
     @Bean
+    @Override
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         for (CacheType cacheType : CacheType.values()) {
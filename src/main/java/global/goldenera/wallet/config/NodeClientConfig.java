@@ -38,6 +38,7 @@ import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 import global.goldenera.wallet.client.node.api.v1.AccountBalanceApiV1Api;
+import global.goldenera.wallet.client.node.api.v1.BlockHeaderApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.BlockchainApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.MemTransferApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.MempoolApiV1Api;
@@ -136,4 +137,9 @@ public class NodeClientConfig {
     public TokenApiV1Api tokenApiV1(HttpServiceProxyFactory nodeHttpServiceProxyFactory) {
         return nodeHttpServiceProxyFactory.createClient(TokenApiV1Api.class);
     }
+
+    @Bean
+    public BlockHeaderApiV1Api blockHeaderApiV1(HttpServiceProxyFactory nodeHttpServiceProxyFactory) {
+        return nodeHttpServiceProxyFactory.createClient(BlockHeaderApiV1Api.class);
+    }
 }
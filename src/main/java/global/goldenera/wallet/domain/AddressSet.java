@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.domain;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import global.goldenera.cryptoj.datatypes.Address;
+
+/**
+ * Immutable, canonical set of addresses used as a request filter.
+ * <p>
+ * Addresses are de-duplicated and sorted by their raw bytes, so the same
+ * wallet requested in a different order or casing yields an equal set. Equality
+ * and hash code are based on a SHA-256 digest of the sorted bytes, which makes
+ * the set cheap to use as (part of) a cache key. Checksum strings for node
+ * requests are computed once, on creation.
+ */
+public final class AddressSet implements Iterable<Address> {
+
+    public static final AddressSet EMPTY = new AddressSet(new Address[0]);
+
+    private final List<Address> addresses;
+    private final Set<String> checksumAddresses;
+    private final byte[] digest;
+    private final int hashCode;
+
+    private AddressSet(Address[] sorted) {
+        this.addresses = List.of(sorted);
+        Set<String> checksums = new LinkedHashSet<>(sorted.length * 2);
+        MessageDigest sha256 = sha256();
+        for (Address address : sorted) {
+            checksums.add(address.toChecksumAddress());
+            sha256.update(address.toArrayUnsafe());
+        }
+        this.checksumAddresses = Collections.unmodifiableSet(checksums);
+        this.digest = sha256.digest();
+        this.hashCode = (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8
+                | (digest[3] & 0xFF);
+    }
+
+    public static AddressSet of(Collection<Address> addresses) {
+        if (addresses == null || addresses.isEmpty()) {
+            return EMPTY;
+        }
+        Address[] sorted = addresses.stream()
+                .distinct()
+                .sorted((a, b) -> Arrays.compareUnsigned(a.toArrayUnsafe(), b.toArrayUnsafe()))
+                .toArray(Address[]::new);
+        return new AddressSet(sorted);
+    }
+
+    public static AddressSet of(Address... addresses) {
+        return of(Arrays.asList(addresses));
+    }
+
+    /**
+     * Addresses in canonical order.
+     */
+    public List<Address> addresses() {
+        return addresses;
+    }
+
+    /**
+     * Checksum strings in canonical order, as expected by the node API.
+     */
+    public Set<String> toChecksumAddresses() {
+        return checksumAddresses;
+    }
+
+    /**
+     * SHA-256 of the concatenated raw address bytes in canonical order.
+     */
+    public byte[] digest() {
+        return digest.clone();
+    }
+
+    public boolean contains(Address address) {
+        return addresses.contains(address);
+    }
+
+    public int size() {
+        return addresses.size();
+    }
+
+    public boolean isEmpty() {
+        return addresses.isEmpty();
+    }
+
+    @Override
+    public Iterator<Address> iterator() {
+        return addresses.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof AddressSet other && hashCode == other.hashCode
+                && MessageDigest.isEqual(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return checksumAddresses.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
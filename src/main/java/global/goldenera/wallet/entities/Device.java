@@ -49,7 +49,8 @@ import lombok.experimental.FieldDefaults;
 @Entity
 @Table(name = "device", indexes = {
         @Index(name = "idx_device_client_id", columnList = "client_identifier", unique = true),
-        @Index(name = "idx_device_fcm_token", columnList = "fcm_token")
+        @Index(name = "idx_device_fcm_token", columnList = "fcm_token"),
+        @Index(name = "idx_device_last_seen_at", columnList = "last_seen_at, id")
 })
 @Getter
 @Setter
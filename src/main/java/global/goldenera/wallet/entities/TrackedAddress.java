@@ -57,9 +57,12 @@ import lombok.experimental.FieldDefaults;
 @EqualsAndHashCode(of = "id")
 public class TrackedAddress {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracked_addr_seq")
-    @SequenceGenerator(name = "tracked_addr_seq", sequenceName = "tracked_addr_id_seq", allocationSize = 50)
+    @SequenceGenerator(name = "tracked_addr_seq", sequenceName = "tracked_addr_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     Long id;
 
     @Convert(converter = AddressConverter.class)
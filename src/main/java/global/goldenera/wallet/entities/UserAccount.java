@@ -64,9 +64,12 @@ import lombok.experimental.FieldDefaults;
 @EqualsAndHashCode(of = "id")
 public class UserAccount {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_acc_seq")
-    @SequenceGenerator(name = "user_acc_seq", sequenceName = "user_acc_id_seq", allocationSize = 50)
+    @SequenceGenerator(name = "user_acc_seq", sequenceName = "user_acc_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -34,7 +34,7 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public enum WebhookEventType {
-	NEW_BLOCK(0), ADDRESS_ACTIVITY(1);
+	NEW_BLOCK(0), ADDRESS_ACTIVITY(1), REORG(2);
 
 	int code;
 
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.properties;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+@Validated
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ge.device", ignoreUnknownFields = false)
+public class DeviceProperties {
+
+    /**
+     * Time a registration waits for others to share its upsert.
+     */
+    @NotNull
+    Duration registrationLinger;
+    @Positive
+    int registrationMaxBatchSize;
+    /**
+     * Registrations waiting for an upsert. Further registrations are upserted
+     * one by one.
+     */
+    @Positive
+    int registrationQueueCapacity;
+    /**
+     * Delay between two writes of buffered heartbeats in milliseconds.
+     */
+    @Positive
+    long heartbeatFlushIntervalMs;
+    @Positive
+    int heartbeatBatchSize;
+    /**
+     * Devices with a buffered heartbeat. Heartbeats of further devices wait for
+     * the next flush.
+     */
+    @Positive
+    int heartbeatMaxPending;
+    /**
+     * Devices not seen for this long are deleted by the nightly cleanup.
+     */
+    @NotNull
+    Duration zombieAfter;
+    /**
+     * Devices deleted per cleanup transaction.
+     */
+    @Positive
+    int cleanupChunkSize;
+    /**
+     * Pause between two cleanup transactions.
+     */
+    @NotNull
+    Duration cleanupChunkPause;
+    /**
+     * A cleanup run stops after this time and is resumed by the next run.
+     */
+    @NotNull
+    Duration cleanupMaxRunTime;
+    /**
+     * Upper bound of the addresses tracked by one device.
+     */
+    @Positive
+    int maxTrackedAddresses;
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.properties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import global.goldenera.wallet.enums.WebhookEventType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+@Validated
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ge.webhook.ingestion", ignoreUnknownFields = false)
+public class WebhookIngestionProperties {
+
+    /**
+     * Worker lane per event type. REORG events share the NEW_BLOCK lane.
+     */
+    @Valid
+    Map<WebhookEventType, Lane> lanes = new EnumMap<>(WebhookEventType.class);
+
+    /**
+     * Largest delivery body read. The body is parsed before its signature is
+     * checked, so larger bodies are refused unread.
+     */
+    @NotNull
+    DataSize maxBodySize;
+    /**
+     * Largest number of events in one delivery.
+     */
+    @Positive
+    int maxEventsPerDelivery;
+
+    /**
+     * Number of accepted events remembered for duplicate suppression.
+     */
+    @Positive
+    int dedupMaxEntries;
+    /**
+     * Time an accepted event is remembered for duplicate suppression.
+     */
+    @NotNull
+    Duration dedupTtl;
+
+    /**
+     * Slots of the event bus ring, rounded up to a power of two. A subscriber
+     * falling further behind loses events.
+     */
+    @Positive
+    int busCapacity;
+    /**
+     * On shutdown, queued events are processed for up to this long before the
+     * workers are stopped. New deliveries are refused meanwhile.
+     */
+    @NotNull
+    Duration shutdownTimeout;
+
+    @Getter
+    @Setter
+    public static class Lane {
+        @Positive
+        int workers;
+        @Positive
+        int queueCapacity;
+    }
+}
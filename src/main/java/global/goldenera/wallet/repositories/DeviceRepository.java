@@ -24,10 +24,12 @@
 package global.goldenera.wallet.repositories;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -46,9 +48,31 @@ public interface DeviceRepository
         @Query("SELECT d.id FROM Device d WHERE d.lastSeenAt < :threshold")
         List<UUID> findIdsByLastSeenAtBefore(Instant threshold);
 
+        @Query("SELECT d.id FROM Device d WHERE d.lastSeenAt >= :threshold ORDER BY d.lastSeenAt DESC")
+        List<UUID> findIdsByLastSeenAtAfter(Instant threshold, Pageable pageable);
+
+        /**
+         * Keyset page of the devices last seen before the threshold, ordered by
+         * last seen time and id, starting after the given position.
+         */
+        @Query("""
+                        SELECT d.id AS id, d.lastSeenAt AS lastSeenAt FROM Device d
+                        WHERE d.lastSeenAt < :threshold
+                                AND (d.lastSeenAt > :afterLastSeenAt OR (d.lastSeenAt = :afterLastSeenAt AND d.id > :afterId))
+                        ORDER BY d.lastSeenAt, d.id
+                        """)
+        List<DeviceLastSeen> findLastSeenBefore(Instant threshold, Instant afterLastSeenAt, UUID afterId,
+                        Pageable pageable);
+
         Optional<Device> findByClientIdentifier(UUID clientIdentifier);
 
+        @Query("SELECT d.id AS id, d.fcmToken AS fcmToken FROM Device d WHERE d.id IN :ids AND d.fcmToken IS NOT NULL")
+        List<DeviceToken> findFcmTokensByIds(Collection<UUID> ids);
+
         @Modifying
+        @Query("UPDATE Device d SET d.fcmToken = NULL WHERE d.fcmToken IN :fcmTokens")
+        int clearFcmTokens(Collection<String> fcmTokens);
+
         @Query(nativeQuery = true, value = """
                         INSERT INTO device (id, client_identifier, platform, fcm_token, app_version, created_at, last_seen_at)
                         VALUES (gen_random_uuid(), :clientIdentifier, :platform, :fcmToken, :appVersion, NOW(), NOW())
@@ -57,7 +81,52 @@ public interface DeviceRepository
                                 app_version = :appVersion,
                                 platform = :platform,
                                 last_seen_at = NOW()
+                        RETURNING *
+                        """)
+        Device upsert(UUID clientIdentifier, String platform, String fcmToken, String appVersion);
+
+        /**
+         * Multi-row variant of {@link #upsert}, the arrays are the columns of the
+         * rows. Client identifiers must be distinct.
+         */
+        @Query(nativeQuery = true, value = """
+                        INSERT INTO device (id, client_identifier, platform, fcm_token, app_version, created_at, last_seen_at)
+                        SELECT gen_random_uuid(), r.client_identifier, r.platform, r.fcm_token, r.app_version, NOW(), NOW()
+                        FROM unnest(CAST(:clientIdentifiers AS uuid[]), CAST(:platforms AS varchar[]),
+                                        CAST(:fcmTokens AS varchar[]), CAST(:appVersions AS varchar[]))
+                                        AS r (client_identifier, platform, fcm_token, app_version)
+                        ON CONFLICT (client_identifier) DO UPDATE SET
+                                fcm_token = EXCLUDED.fcm_token,
+                                app_version = EXCLUDED.app_version,
+                                platform = EXCLUDED.platform,
+                                last_seen_at = NOW()
+                        RETURNING *
                         """)
-        void upsert(UUID clientIdentifier, String platform, String fcmToken, String appVersion);
+        List<Device> upsertAll(UUID[] clientIdentifiers, String[] platforms, String[] fcmTokens, String[] appVersions);
+
+        /**
+         * Raises last_seen_at of the devices to the given times, the arrays are the
+         * columns of the rows. Client identifiers must be distinct.
+         */
+        @Modifying
+        @Query(nativeQuery = true, value = """
+                        UPDATE device d SET last_seen_at = v.seen_at
+                        FROM unnest(CAST(:clientIdentifiers AS uuid[]), CAST(:seenAts AS timestamptz[]))
+                                        AS v (client_identifier, seen_at)
+                        WHERE d.client_identifier = v.client_identifier
+                                AND (d.last_seen_at IS NULL OR d.last_seen_at < v.seen_at)
+                        """)
+        int updateLastSeenAt(UUID[] clientIdentifiers, Instant[] seenAts);
+
+        interface DeviceLastSeen {
+                UUID getId();
+
+                Instant getLastSeenAt();
+        }
+
+        interface DeviceToken {
+                UUID getId();
 
-}
\ No newline at end of file
+                String getFcmToken();
+        }
+}
@@ -26,14 +26,20 @@ package global.goldenera.wallet.repositories;
 import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.ListPagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import global.goldenera.cryptoj.datatypes.Address;
 import global.goldenera.wallet.entities.TrackedAddress;
 import io.hypersistence.utils.spring.repository.BaseJpaRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface TrackedAddressRepository
@@ -45,7 +51,11 @@ public interface TrackedAddressRepository
          * Finds TrackedAddress entities that:
          * 1. Have an ID in the given collection
          * 2. Have no remaining UserAccount subscribers (orphaned)
+         * 3. Are not locked by a request linking them right now
+         * The returned rows stay locked until the transaction ends.
          */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
         @Query("""
                         SELECT ta FROM TrackedAddress ta
                         WHERE ta.id IN :ids
@@ -53,9 +63,47 @@ public interface TrackedAddressRepository
                         """)
         List<TrackedAddress> findOrphanedByIds(Collection<Long> ids);
 
+        @Query("SELECT ta.id AS id, ta.address AS address FROM TrackedAddress ta WHERE ta.id > :afterId ORDER BY ta.id")
+        List<TrackedAddressRow> findAddressesAfter(long afterId, Pageable pageable);
+
+        /**
+         * Order-independent digest of all tracked addresses: their count and the
+         * XOR of their first eight bytes read as a big-endian long.
+         */
+        @Query(nativeQuery = true, value = """
+                        SELECT count(*) AS count,
+                        COALESCE(bit_xor(CAST(CAST('x' || encode(substring(address FROM 1 FOR 8), 'hex') AS bit(64))
+                        AS bigint)), 0) AS fingerprint
+                        FROM tracked_address
+                        """)
+        TrackedAddressDigest getDigest();
+
+        /**
+         * Share-locks the rows, so they cannot be deleted as orphans before the
+         * caller links them.
+         */
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        List<TrackedAddress> findAllByAddressIn(Collection<Address> addresses);
+
+        @Query(nativeQuery = true, value = "SELECT nextval('tracked_addr_id_seq') FROM generate_series(1, :count)")
+        List<Long> nextIdValues(int count);
+
+        /**
+         * Inserts the rows given as columns, skipping addresses that already
+         * exist. Addresses are unprefixed hex strings.
+         */
+        @Modifying
+        @Query(nativeQuery = true, value = """
+                        INSERT INTO tracked_address (id, address)
+                        SELECT r.id, decode(r.address, 'hex')
+                        FROM unnest(CAST(:ids AS bigint[]), CAST(:addresses AS text[])) AS r (id, address)
+                        ON CONFLICT (address) DO NOTHING
+                        """)
+        int insertAllIgnoringExisting(Long[] ids, String[] addresses);
+
         /**
          * Deletes TrackedAddress entities that have no remaining UserAccount
-         * subscribers.
+         * subscribers. Pass the ids locked by {@link #findOrphanedByIds}.
          * Returns the number of deleted records.
          */
         @Modifying
@@ -65,4 +113,16 @@ public interface TrackedAddressRepository
                         AND NOT EXISTS (SELECT 1 FROM UserAccount ua WHERE ua.trackedAddress = ta)
                         """)
         int deleteOrphanedByIds(Collection<Long> ids);
-}
\ No newline at end of file
+
+        interface TrackedAddressDigest {
+                long getCount();
+
+                long getFingerprint();
+        }
+
+        interface TrackedAddressRow {
+                Long getId();
+
+                Address getAddress();
+        }
+}
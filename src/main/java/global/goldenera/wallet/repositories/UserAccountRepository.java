@@ -24,14 +24,18 @@
 package global.goldenera.wallet.repositories;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListPagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import global.goldenera.cryptoj.datatypes.Address;
 import global.goldenera.wallet.entities.UserAccount;
 import io.hypersistence.utils.spring.repository.BaseJpaRepository;
 
@@ -45,4 +49,54 @@ public interface UserAccountRepository
         Set<Long> findTrackedAddressIdsByDeviceIds(Collection<UUID> deviceIds);
 
         long countByTrackedAddressId(Long trackedAddressId);
-}
\ No newline at end of file
+
+        @Query("SELECT ua.device.id AS deviceId, ua.trackedAddress.address AS address FROM UserAccount ua WHERE ua.device.id IN :deviceIds")
+        List<DeviceAddress> findDeviceAddressesByDeviceIds(Collection<UUID> deviceIds);
+
+        @Query("""
+                        SELECT ua.id AS id, ua.device.id AS deviceId, ua.trackedAddress.address AS address
+                        FROM UserAccount ua
+                        WHERE ua.id > :afterId
+                        ORDER BY ua.id
+                        """)
+        List<DeviceAddressLink> findDeviceAddressLinksAfter(Long afterId, Pageable pageable);
+
+        @Query("SELECT ua.trackedAddress.id AS trackedAddressId, ua.trackedAddress.address AS address FROM UserAccount ua WHERE ua.device.id = :deviceId")
+        List<TrackedAddressLink> findTrackedAddressLinksByDeviceId(UUID deviceId);
+
+        @Query(nativeQuery = true, value = "SELECT nextval('user_acc_id_seq') FROM generate_series(1, :count)")
+        List<Long> nextIdValues(int count);
+
+        /**
+         * Links the device to the tracked addresses given as columns, skipping
+         * existing links.
+         */
+        @Modifying
+        @Query(nativeQuery = true, value = """
+                        INSERT INTO user_account (id, device_id, tracked_address_id, created_at)
+                        SELECT r.id, :deviceId, r.tracked_address_id, NOW()
+                        FROM unnest(CAST(:ids AS bigint[]), CAST(:trackedAddressIds AS bigint[])) AS r (id, tracked_address_id)
+                        ON CONFLICT (device_id, tracked_address_id) DO NOTHING
+                        """)
+        int insertAllIgnoringExisting(UUID deviceId, Long[] ids, Long[] trackedAddressIds);
+
+        @Modifying
+        @Query("DELETE FROM UserAccount ua WHERE ua.device.id = :deviceId AND ua.trackedAddress.id IN :trackedAddressIds")
+        int deleteByDeviceIdAndTrackedAddressIds(UUID deviceId, Collection<Long> trackedAddressIds);
+
+        interface TrackedAddressLink {
+                Long getTrackedAddressId();
+
+                Address getAddress();
+        }
+
+        interface DeviceAddress {
+                UUID getDeviceId();
+
+                Address getAddress();
+        }
+
+        interface DeviceAddressLink extends DeviceAddress {
+                Long getId();
+        }
+}
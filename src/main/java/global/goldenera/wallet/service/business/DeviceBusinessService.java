@@ -25,12 +25,28 @@ package global.goldenera.wallet.service.business;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import global.goldenera.cryptoj.datatypes.Address;
 import global.goldenera.wallet.entities.Device;
-import global.goldenera.wallet.exceptions.GEFailedException;
+import global.goldenera.wallet.exceptions.GENotFoundException;
+import global.goldenera.wallet.exceptions.GEValidationException;
+import global.goldenera.wallet.properties.DeviceProperties;
 import global.goldenera.wallet.service.core.DeviceCoreService;
+import global.goldenera.wallet.service.core.TrackedAddressCoreService;
+import global.goldenera.wallet.service.core.UserAccountCoreService;
+import global.goldenera.wallet.service.push.DeviceRoutingIndex;
+import global.goldenera.wallet.service.scheduler.DeviceHeartbeatService;
+import global.goldenera.wallet.service.scheduler.SubscriptionSyncService;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
@@ -39,12 +55,97 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class DeviceBusinessService {
 
+    DeviceRegistrationBatcher deviceRegistrationBatcher;
+    DeviceHeartbeatService deviceHeartbeatService;
     DeviceCoreService deviceCoreService;
+    UserAccountCoreService userAccountCoreService;
+    TrackedAddressCoreService trackedAddressCoreService;
+    DeviceRoutingIndex deviceRoutingIndex;
+    SubscriptionSyncService subscriptionSyncService;
+    DeviceProperties deviceProperties;
 
-    @Transactional(rollbackFor = Exception.class)
     public Device registerDevice(Device device) {
-        deviceCoreService.upsert(device);
-        return deviceCoreService.getByClientIdentifierOptional(device.getClientIdentifier())
-                .orElseThrow(() -> new GEFailedException("Device should exist after upsert"));
+        return deviceRegistrationBatcher.register(device);
+    }
+
+    public void heartbeat(UUID clientIdentifier) {
+        deviceHeartbeatService.heartbeat(clientIdentifier);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Address> getAddresses(UUID clientIdentifier) {
+        Device device = getDevice(clientIdentifier);
+        return List.copyOf(userAccountCoreService.getTrackedAddressIds(device.getId()).keySet());
+    }
+
+    /**
+     * Replaces the addresses tracked by the device.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Address> replaceAddresses(UUID clientIdentifier, Set<Address> addresses) {
+        validateSize(addresses.size());
+        Device device = getDevice(clientIdentifier);
+        Map<Address, Long> current = userAccountCoreService.getTrackedAddressIds(device.getId());
+
+        Set<Address> added = new HashSet<>(addresses);
+        added.removeAll(current.keySet());
+        Map<Address, Long> removed = new HashMap<>(current);
+        removed.keySet().removeAll(addresses);
+
+        apply(device.getId(), added, removed);
+        return List.copyOf(addresses);
+    }
+
+    /**
+     * Adds and removes addresses tracked by the device, the others stay.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Address> patchAddresses(UUID clientIdentifier, Set<Address> add, Set<Address> remove) {
+        Set<Address> toAdd = add != null ? add : Set.of();
+        Set<Address> toRemove = remove != null ? remove : Set.of();
+        if (toAdd.stream().anyMatch(toRemove::contains)) {
+            throw new GEValidationException("An address cannot be added and removed at once");
+        }
+        Device device = getDevice(clientIdentifier);
+        Map<Address, Long> current = userAccountCoreService.getTrackedAddressIds(device.getId());
+
+        Set<Address> added = new HashSet<>(toAdd);
+        added.removeAll(current.keySet());
+        Map<Address, Long> removed = new HashMap<>(current);
+        removed.keySet().retainAll(toRemove);
+        validateSize(current.size() + added.size() - removed.size());
+
+        apply(device.getId(), added, removed);
+        Set<Address> result = new HashSet<>(current.keySet());
+        result.addAll(added);
+        result.removeAll(removed.keySet());
+        return List.copyOf(result);
+    }
+
+    private void apply(UUID deviceId, Collection<Address> added, Map<Address, Long> removed) {
+        if (!added.isEmpty()) {
+            Map<Address, Long> trackedAddressIds = trackedAddressCoreService.getOrCreateIds(added);
+            userAccountCoreService.link(deviceId, trackedAddressIds.values());
+            deviceRoutingIndex.onLinked(deviceId, added);
+            subscriptionSyncService.onAddressesTracked(added);
+        }
+        if (!removed.isEmpty()) {
+            userAccountCoreService.unlink(deviceId, removed.values());
+            List<Address> orphaned = trackedAddressCoreService.deleteOrphaned(removed.values());
+            deviceRoutingIndex.onUnlinked(deviceId, removed.keySet());
+            subscriptionSyncService.onAddressesUntracked(orphaned);
+        }
+    }
+
+    private Device getDevice(UUID clientIdentifier) {
+        return deviceCoreService.getByClientIdentifierOptional(clientIdentifier)
+                .orElseThrow(() -> new GENotFoundException("Device not found"));
+    }
+
+    private void validateSize(int size) {
+        if (size > deviceProperties.getMaxTrackedAddresses()) {
+            throw new GEValidationException("A device tracks at most " + deviceProperties.getMaxTrackedAddresses()
+                    + " addresses");
+        }
     }
 }
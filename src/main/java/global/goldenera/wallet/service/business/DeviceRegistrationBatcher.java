@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.business;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.entities.Device;
+import global.goldenera.wallet.exceptions.GEFailedException;
+import global.goldenera.wallet.properties.DeviceProperties;
+import global.goldenera.wallet.service.core.DeviceCoreService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects device registrations arriving within the linger time and upserts
+ * them with a single multi-row statement, so a storm of app launches costs one
+ * round trip per batch instead of one per device.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class DeviceRegistrationBatcher {
+
+    private record Registration(Device device, CompletableFuture<Device> result) {
+    }
+
+    DeviceProperties deviceProperties;
+    DeviceCoreService deviceCoreService;
+    BlockingQueue<Registration> queue;
+
+    @NonFinal
+    Thread worker;
+
+    public DeviceRegistrationBatcher(DeviceProperties deviceProperties, DeviceCoreService deviceCoreService) {
+        this.deviceProperties = deviceProperties;
+        this.deviceCoreService = deviceCoreService;
+        this.queue = new ArrayBlockingQueue<>(deviceProperties.getRegistrationQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Thread.ofVirtual().name("device-registration").start(this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Registers the device with the next batch and waits for the stored row.
+     */
+    public Device register(Device device) {
+        Registration registration = new Registration(device, new CompletableFuture<>());
+        if (!queue.offer(registration)) {
+            return deviceCoreService.upsert(device);
+        }
+        try {
+            return registration.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GEFailedException("Device registration was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GEFailedException("Device registration failed", e.getCause());
+        }
+    }
+
+    private void run() {
+        List<Registration> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + deviceProperties.getRegistrationLinger().toNanos();
+                while (batch.size() < deviceProperties.getRegistrationMaxBatchSize()) {
+                    Registration next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.addAll(queue);
+                batch.forEach(registration -> registration.result()
+                        .completeExceptionally(new GEFailedException("Device registration was shut down")));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Registration> batch) {
+        // A multi-row upsert may not touch a row twice, the latest registration of a client wins
+        Map<UUID, Device> devices = new LinkedHashMap<>();
+        for (Registration registration : batch) {
+            devices.put(registration.device().getClientIdentifier(), registration.device());
+        }
+        try {
+            Map<UUID, Device> stored = new LinkedHashMap<>();
+            for (Device device : deviceCoreService.upsertAll(devices.values())) {
+                stored.put(device.getClientIdentifier(), device);
+            }
+            for (Registration registration : batch) {
+                Device device = stored.get(registration.device().getClientIdentifier());
+                if (device != null) {
+                    registration.result().complete(device);
+                } else {
+                    registration.result().completeExceptionally(
+                            new GEFailedException("Device should exist after upsert"));
+                }
+            }
+            log.debug("Registered {} devices in one upsert", devices.size());
+        } catch (RuntimeException e) {
+            // Do not let one bad registration fail the others
+            log.warn("Batched device registration of {} devices failed, registering one by one: {}",
+                    devices.size(), e.getMessage());
+            for (Registration registration : batch) {
+                try {
+                    registration.result().complete(deviceCoreService.upsert(registration.device()));
+                } catch (RuntimeException single) {
+                    registration.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+}
@@ -28,17 +28,25 @@ import static lombok.AccessLevel.PRIVATE;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.apache.tuweni.units.ethereum.Wei;
 import org.springframework.stereotype.Service;
 
 import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.MempoolRecommendedFeesDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.TokenDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.TxStatusDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferPageDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletBalanceDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletSnapshotDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletSnapshotDtoV1.NextNonce;
 import global.goldenera.wallet.api.core.v1.wallet.mappers.WalletMapper;
 import global.goldenera.wallet.client.node.model.v1.AccountBalanceDtoV1Page;
 import global.goldenera.wallet.client.node.model.v1.BulkMemTransferPageRequestV1.TransferTypeEnum;
@@ -48,8 +56,18 @@ import global.goldenera.wallet.client.node.model.v1.MemTransferDtoV1Page;
 import global.goldenera.wallet.client.node.model.v1.MempoolResult;
 import global.goldenera.wallet.client.node.model.v1.TransferDtoV1;
 import global.goldenera.wallet.client.node.model.v1.TransferDtoV1Page;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.exceptions.GEValidationException;
+import global.goldenera.wallet.properties.StreamProperties;
+import global.goldenera.wallet.service.cache.NegativeCacheService;
+import global.goldenera.wallet.service.cache.NegativeCacheService.Kind;
+import global.goldenera.wallet.service.cache.OffHeapTransferPageStore;
+import global.goldenera.wallet.service.cache.OffHeapTransferPageStore.ConfirmedTransferPage;
+import global.goldenera.wallet.service.cache.OffHeapTransferPageStore.Mark;
+import global.goldenera.wallet.service.cache.OffHeapTransferPageStore.PageKey;
 import global.goldenera.wallet.service.node.BlockchainNodeService;
 import global.goldenera.wallet.service.node.ExplorerNodeService;
+import global.goldenera.wallet.service.stream.TxStatusTracker;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
@@ -65,6 +83,10 @@ public class WalletBusinessService {
     ExplorerNodeService explorerNodeService;
     BlockchainNodeService blockchainNodeService;
     WalletMapper walletMapper;
+    OffHeapTransferPageStore offHeapTransferPageStore;
+    TxStatusTracker txStatusTracker;
+    NegativeCacheService negativeCacheService;
+    StreamProperties streamProperties;
 
     /**
      * Get balances for multiple addresses.
@@ -73,10 +95,25 @@ public class WalletBusinessService {
      * @param addresses
      *            Set of wallet addresses
      * @param tokenAddresses
-     *            Set of token addresses (null for native token only)
+     *            Set of token addresses (empty for native token only)
      * @return List of wallet balances (adjusted for pending outgoing transactions)
      */
-    public List<WalletBalanceDtoV1> getBalances(Set<Address> addresses, Set<Address> tokenAddresses) {
+    public List<WalletBalanceDtoV1> getBalances(AddressSet addresses, AddressSet tokenAddresses) {
+        List<WalletBalanceDtoV1> balances = getConfirmedBalances(addresses, tokenAddresses);
+
+        // Fetch all pending mempool transactions for the given addresses
+        List<MemTransferDtoV1> pendingTransfers = getAllPendingTransfers(addresses, tokenAddresses);
+
+        // Adjust balances by subtracting pending outgoing transactions
+        return balances.stream()
+                .map(balance -> adjustBalanceForPendingOutgoing(balance, pendingTransfers))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches all confirmed balances for the given addresses.
+     */
+    private List<WalletBalanceDtoV1> getConfirmedBalances(AddressSet addresses, AddressSet tokenAddresses) {
         int pageNumber = 0;
         int pageSize = 100;
         Long totalElements = 0L;
@@ -100,19 +137,13 @@ public class WalletBusinessService {
             pageNumber++;
         } while (pageNumber * pageSize < totalElements);
 
-        // Fetch all pending mempool transactions for the given addresses
-        List<MemTransferDtoV1> pendingTransfers = getAllPendingTransfers(addresses, tokenAddresses);
-
-        // Adjust balances by subtracting pending outgoing transactions
-        return balances.stream()
-                .map(balance -> adjustBalanceForPendingOutgoing(balance, pendingTransfers))
-                .collect(Collectors.toList());
+        return balances;
     }
 
     /**
      * Fetches all pending mempool transfers for the given addresses.
      */
-    private List<MemTransferDtoV1> getAllPendingTransfers(Set<Address> addresses, Set<Address> tokenAddresses) {
+    private List<MemTransferDtoV1> getAllPendingTransfers(AddressSet addresses, AddressSet tokenAddresses) {
         List<MemTransferDtoV1> allPendingTransfers = new ArrayList<>();
         int pendingPageNumber = 0;
         int pendingPageSize = 100;
@@ -216,14 +247,14 @@ public class WalletBusinessService {
      * @param addresses
      *            Set of wallet addresses
      * @param tokenAddresses
-     *            Set of token addresses (null for all tokens)
+     *            Set of token addresses (empty for all tokens)
      * @param pageNumber
      *            Page number (0-indexed)
      * @param pageSize
      *            Page size
      * @return Paginated unified transfers
      */
-    public UnifiedTransferPageDtoV1 getTransfers(Set<Address> addresses, Set<Address> tokenAddresses, int pageNumber,
+    public UnifiedTransferPageDtoV1 getTransfers(AddressSet addresses, AddressSet tokenAddresses, int pageNumber,
             int pageSize, TransferTypeEnum transferType) {
         Long currentBlockHeight = blockchainNodeService.getLatestBlockHeight();
 
@@ -259,58 +290,41 @@ public class WalletBusinessService {
             // If we need more items, fetch confirmed transfers
             int remainingSlots = pageSize - content.size();
             if (remainingSlots > 0) {
-                TransferDtoV1Page confirmedPage = explorerNodeService.getTransfersBulk(
+                ConfirmedTransferPage confirmedPage = getConfirmedTransfers(
                         0, // start from beginning of confirmed
                         remainingSlots,
                         addresses,
                         tokenAddresses,
-                        transferType != null ? BulkTransferPageRequestV1.TypeEnum.fromValue(transferType.name())
-                                : null);
-
-                if (confirmedPage != null) {
-                    confirmedCount = confirmedPage.getTotalElements() != null
-                            ? confirmedPage.getTotalElements()
-                            : 0;
-                    if (confirmedPage.getList() != null) {
-                        for (TransferDtoV1 confirmed : confirmedPage.getList()) {
-                            content.add(walletMapper.toUnifiedTransferWithConfirmations(confirmed, currentBlockHeight));
-                        }
-                    }
-                }
+                        transferType,
+                        currentBlockHeight);
+                confirmedCount = confirmedPage.totalElements();
+                content.addAll(confirmedPage.content());
             } else {
                 // Still need to get confirmed count for totalElements calculation
-                TransferDtoV1Page confirmedPage = explorerNodeService.getTransfersBulk(
-                        0, 1, addresses, tokenAddresses,
-                        transferType != null ? BulkTransferPageRequestV1.TypeEnum.fromValue(transferType.name())
-                                : null);
-                if (confirmedPage != null && confirmedPage.getTotalElements() != null) {
-                    confirmedCount = confirmedPage.getTotalElements();
-                }
+                confirmedCount = getConfirmedTransfers(0, 1, addresses, tokenAddresses, transferType,
+                        currentBlockHeight).totalElements();
             }
         } else {
             // Page starts after all pending transfers - only fetch confirmed
             int confirmedOffset = offset - pendingCountInt;
             int confirmedPageNumber = confirmedOffset / pageSize;
 
-            TransferDtoV1Page confirmedPage = explorerNodeService.getTransfersBulk(
+            ConfirmedTransferPage confirmedPage = getConfirmedTransfers(
                     confirmedPageNumber,
                     pageSize,
                     addresses,
                     tokenAddresses,
-                    transferType != null ? BulkTransferPageRequestV1.TypeEnum.fromValue(transferType.name()) : null);
-
-            if (confirmedPage != null) {
-                confirmedCount = confirmedPage.getTotalElements() != null
-                        ? confirmedPage.getTotalElements()
-                        : 0;
-                if (confirmedPage.getList() != null) {
-                    for (TransferDtoV1 confirmed : confirmedPage.getList()) {
-                        content.add(walletMapper.toUnifiedTransferWithConfirmations(confirmed, currentBlockHeight));
-                    }
-                }
-            }
+                    transferType,
+                    currentBlockHeight);
+            confirmedCount = confirmedPage.totalElements();
+            content.addAll(confirmedPage.content());
         }
 
+        return toTransferPage(content, pageNumber, pageSize, pendingCount, confirmedCount);
+    }
+
+    private static UnifiedTransferPageDtoV1 toTransferPage(List<UnifiedTransferDtoV1> content, int pageNumber,
+            int pageSize, long pendingCount, long confirmedCount) {
         long totalElements = pendingCount + confirmedCount;
         int totalPages = (int) Math.ceil((double) totalElements / pageSize);
         if (totalPages == 0)
@@ -328,6 +342,50 @@ public class WalletBusinessService {
                 pageNumber >= totalPages - 1);
     }
 
+    /**
+     * Loads the first page of confirmed transfers into the off-heap store, the
+     * page a wallet without pending transfers asks for first. Balances and
+     * pending transfers are cached for seconds only, so they are not warmed.
+     */
+    public void warmUpConfirmedTransfers(AddressSet addresses, AddressSet tokenAddresses, int pageSize) {
+        getConfirmedTransfers(0, pageSize, addresses, tokenAddresses, null,
+                blockchainNodeService.getLatestBlockHeight());
+    }
+
+    /**
+     * Fetches a page of confirmed transfers, served from the off-heap store when
+     * it is still valid. Confirmations are computed for the given chain tip.
+     */
+    private ConfirmedTransferPage getConfirmedTransfers(int pageNumber, int pageSize, AddressSet addresses,
+            AddressSet tokenAddresses, TransferTypeEnum transferType, Long currentBlockHeight) {
+        BulkTransferPageRequestV1.TypeEnum type = transferType != null
+                ? BulkTransferPageRequestV1.TypeEnum.fromValue(transferType.name())
+                : null;
+        PageKey key = new PageKey(pageNumber, pageSize, addresses, tokenAddresses, type);
+        ConfirmedTransferPage cached = offHeapTransferPageStore.get(key, currentBlockHeight);
+        if (cached != null) {
+            return cached;
+        }
+
+        Mark mark = offHeapTransferPageStore.mark();
+        TransferDtoV1Page confirmedPage = explorerNodeService.getTransfersBulk(pageNumber, pageSize, addresses,
+                tokenAddresses, type);
+        if (confirmedPage == null) {
+            return new ConfirmedTransferPage(List.of(), 0);
+        }
+
+        List<UnifiedTransferDtoV1> content = new ArrayList<>();
+        if (confirmedPage.getList() != null) {
+            for (TransferDtoV1 confirmed : confirmedPage.getList()) {
+                content.add(walletMapper.toUnifiedTransferWithConfirmations(confirmed, currentBlockHeight));
+            }
+        }
+        ConfirmedTransferPage page = new ConfirmedTransferPage(content,
+                confirmedPage.getTotalElements() != null ? confirmedPage.getTotalElements() : 0);
+        offHeapTransferPageStore.put(key, page, mark, currentBlockHeight);
+        return page;
+    }
+
     /**
      * Get token by address.
      */
@@ -345,7 +403,24 @@ public class WalletBusinessService {
     }
 
     public MempoolResult submitTransaction(String hexData) {
-        return blockchainNodeService.submitTransaction(hexData);
+        MempoolResult result = blockchainNodeService.submitTransaction(hexData);
+        if (result != null && result.getStatus() != null) {
+            switch (result.getStatus()) {
+                case SUCCESS, QUEUED, REJECTED_DUPLICATE -> {
+                    Hash hash = txStatusTracker.track(hexData);
+                    // A lookup just before the submit must not keep answering "not found"
+                    negativeCacheService.invalidate(Kind.TX, hash);
+                    negativeCacheService.invalidate(Kind.MEM_TRANSFER, hash);
+                }
+                default -> {
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<TxStatusDtoV1> getTxStatuses(Set<Hash> hashes) {
+        return txStatusTracker.getStatuses(hashes);
     }
 
     public Long getNextNonce(Address address) {
@@ -355,4 +430,81 @@ public class WalletBusinessService {
     public MempoolRecommendedFeesDtoV1 getMempoolRecommendedFees() {
         return walletMapper.toMempoolRecommendedFeesDtoV1(blockchainNodeService.getMempoolRecommendedFees());
     }
+
+    /**
+     * Get everything the wallet screen shows on open.
+     * All node calls run concurrently, the chain tip and the pending transfers
+     * are fetched once and shared by balances and transfers.
+     *
+     * @param addresses
+     *            Set of wallet addresses
+     * @param tokenAddresses
+     *            Set of token addresses (empty for all tokens)
+     * @param pageSize
+     *            Size of the first transfer page
+     * @return Wallet snapshot
+     */
+    public WalletSnapshotDtoV1 getSnapshot(AddressSet addresses, AddressSet tokenAddresses, int pageSize) {
+        // One nonce request per address, so the same cap as a stream
+        if (addresses.size() > streamProperties.getMaxAddressesPerConnection()) {
+            throw new GEValidationException("A snapshot covers at most "
+                    + streamProperties.getMaxAddressesPerConnection() + " addresses");
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Long> height = CompletableFuture
+                    .supplyAsync(blockchainNodeService::getLatestBlockHeight, executor);
+            CompletableFuture<List<MemTransferDtoV1>> pending = CompletableFuture
+                    .supplyAsync(() -> getAllPendingTransfers(addresses, tokenAddresses), executor);
+            CompletableFuture<List<WalletBalanceDtoV1>> balances = CompletableFuture
+                    .supplyAsync(() -> getConfirmedBalances(addresses, tokenAddresses), executor);
+            // Same key as the first confirmed page of /transfers, which that endpoint
+            // only reads when the wallet has no pending transfers
+            CompletableFuture<ConfirmedTransferPage> confirmed = height.thenApplyAsync(
+                    currentBlockHeight -> getConfirmedTransfers(0, pageSize, addresses, tokenAddresses, null,
+                            currentBlockHeight),
+                    executor);
+            CompletableFuture<List<TokenDtoV1>> tokens = CompletableFuture.supplyAsync(this::getTokens, executor);
+            CompletableFuture<MempoolRecommendedFeesDtoV1> fees = CompletableFuture
+                    .supplyAsync(this::getMempoolRecommendedFees, executor);
+            List<CompletableFuture<NextNonce>> nextNonces = addresses.addresses().stream()
+                    .map(address -> CompletableFuture
+                            .supplyAsync(() -> new NextNonce(address, getNextNonce(address)), executor))
+                    .toList();
+
+            List<MemTransferDtoV1> pendingTransfers = await(pending);
+            List<WalletBalanceDtoV1> adjustedBalances = await(balances).stream()
+                    .map(balance -> adjustBalanceForPendingOutgoing(balance, pendingTransfers))
+                    .collect(Collectors.toList());
+
+            List<UnifiedTransferDtoV1> content = new ArrayList<>();
+            for (MemTransferDtoV1 transfer : pendingTransfers.subList(0, Math.min(pageSize, pendingTransfers.size()))) {
+                content.add(walletMapper.toUnifiedTransfer(transfer));
+            }
+            ConfirmedTransferPage confirmedPage = await(confirmed);
+            List<UnifiedTransferDtoV1> confirmedContent = confirmedPage.content();
+            int remainingSlots = pageSize - content.size();
+            content.addAll(confirmedContent.subList(0, Math.min(remainingSlots, confirmedContent.size())));
+            UnifiedTransferPageDtoV1 transfers = toTransferPage(content, 0, pageSize, pendingTransfers.size(),
+                    confirmedPage.totalElements());
+
+            return new WalletSnapshotDtoV1(
+                    await(height),
+                    adjustedBalances,
+                    transfers,
+                    await(tokens),
+                    await(fees),
+                    nextNonces.stream().map(WalletBusinessService::await).toList());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.cache;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1.ReorgEvent;
+import global.goldenera.wallet.client.node.model.v1.AccountBalanceDtoV1;
+import global.goldenera.wallet.client.node.model.v1.AccountBalanceDtoV1Page;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.system.ChainTipService;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache epochs bounded by reorgs.
+ * <p>
+ * Every reorg opens a new epoch and remembers its fork height. A cached value
+ * records the epoch it was fetched in and the highest block height it was
+ * derived from; it stays valid as long as no later reorg forked below that
+ * height. Values fetched while a reorg is being processed are therefore caught
+ * as well, without flushing caches that only hold data from below the fork.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class CacheEpochService {
+
+    private static final int RETAINED_REORGS = 64;
+
+    private record Reorg(long epoch, long forkHeight) {
+    }
+
+    ChainTipService chainTipService;
+    BlockchainNodeService blockchainNodeService;
+    CacheManager cacheManager;
+
+    Deque<Reorg> reorgs = new ArrayDeque<>();
+    @NonFinal
+    volatile long currentEpoch;
+
+    public long currentEpoch() {
+        return currentEpoch;
+    }
+
+    /**
+     * Whether a value fetched in the given epoch and derived from blocks up to
+     * the given height survived all reorgs since.
+     */
+    public synchronized boolean isValid(long epoch, long derivedHeight) {
+        if (epoch == currentEpoch) {
+            return true;
+        }
+        if (reorgs.isEmpty() || reorgs.peekFirst().epoch() > epoch + 1) {
+            // Older than the retained history, nothing can be proven
+            return false;
+        }
+        for (Reorg reorg : reorgs) {
+            if (reorg.epoch() > epoch && derivedHeight > reorg.forkHeight()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void onReorg(ReorgEvent reorg) {
+        long forkHeight = findForkHeight(reorg);
+        synchronized (this) {
+            reorgs.addLast(new Reorg(currentEpoch + 1, forkHeight));
+            while (reorgs.size() > RETAINED_REORGS) {
+                reorgs.pollFirst();
+            }
+            currentEpoch++;
+        }
+        chainTipService.rollbackTo(forkHeight);
+        evictAboveFork(forkHeight);
+        log.info("Reorg from height {} to {}, fork at height {}, cache epoch {}", reorg.oldHeight(),
+                reorg.newHeight(), forkHeight, currentEpoch);
+    }
+
+    /**
+     * Walks back from the lower of both tips until the hash we saw matches the
+     * node's canonical hash at that height. Heights we never saw cannot be
+     * proven and are walked past.
+     */
+    private long findForkHeight(ReorgEvent reorg) {
+        long height = minHeight(reorg.oldHeight(), reorg.newHeight());
+        Long lowest = chainTipService.getLowestRecordedHeight();
+        if (lowest == null) {
+            return Math.max(0, height - 1);
+        }
+        for (long h = height; h >= lowest; h--) {
+            Hash recorded = chainTipService.getRecordedHash(h);
+            if (recorded == null) {
+                continue;
+            }
+            try {
+                if (recorded.equals(blockchainNodeService.getBlockHashByHeight(h))) {
+                    return h;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read canonical hash at height {}: {}", h, e.getMessage());
+                break;
+            }
+        }
+        return Math.max(0, lowest - 1);
+    }
+
+    private long minHeight(Long oldHeight, Long newHeight) {
+        if (oldHeight == null && newHeight == null) {
+            ChainTipService.Tip tip = chainTipService.getTip();
+            return tip != null ? tip.height() : 0;
+        }
+        if (oldHeight == null || newHeight == null) {
+            return oldHeight != null ? oldHeight : newHeight;
+        }
+        return Math.min(oldHeight, newHeight);
+    }
+
+    /**
+     * Drops Spring cache entries derived from blocks above the fork. Values
+     * whose height cannot be derived are dropped as well.
+     */
+    private void evictAboveFork(long forkHeight) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                caffeineCache.getNativeCache().asMap().values()
+                        .removeIf(value -> derivedHeight(value) > forkHeight);
+            } else if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static long derivedHeight(Object value) {
+        return switch (value) {
+            // Latest block height
+            case Long height -> height;
+            case AccountBalanceDtoV1Page page -> {
+                long max = 0;
+                if (page.getList() != null) {
+                    for (AccountBalanceDtoV1 balance : page.getList()) {
+                        if (balance.getUpdatedAtBlockHeight() != null) {
+                            max = Math.max(max, balance.getUpdatedAtBlockHeight());
+                        }
+                    }
+                }
+                yield max;
+            }
+            default -> Long.MAX_VALUE;
+        };
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.cache;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BlockchainBlockHeaderDtoV1;
+import global.goldenera.wallet.client.node.model.v1.TxDtoV1;
+import global.goldenera.wallet.config.CacheConfig;
+import global.goldenera.wallet.config.CacheConfig.MethodKey;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.enums.WebhookTxStatus;
+import global.goldenera.wallet.service.cache.NegativeCacheService.AccountKey;
+import global.goldenera.wallet.service.cache.NegativeCacheService.Kind;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.node.ExplorerNodeService;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops cached node data that a webhook event proved stale.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class CacheInvalidationService {
+
+    NegativeCacheService negativeCacheService;
+    OffHeapTransferPageStore offHeapTransferPageStore;
+    CacheEpochService cacheEpochService;
+    ExplorerNodeService explorerNodeService;
+    CacheManager cacheManager;
+
+    public void onEvent(WebhookEventDtoV1 event) {
+        switch (event) {
+            case WebhookEventDtoV1.NewBlockEvent newBlock -> {
+                // A block may create tokens and include any tx, misses recorded before it are void
+                negativeCacheService.invalidateAll(Kind.TOKEN);
+                negativeCacheService.invalidateAll(Kind.TX);
+                evictNodeCalls(CacheConfig.SHORT_LIVED, key -> key.type() == BlockchainNodeService.class
+                        && key.method().equals("getLatestBlockHeight"));
+                onNewBlock(newBlock.data());
+            }
+            case WebhookEventDtoV1.AddressActivityEvent activity -> {
+                if (activity.data() != null && activity.data().getTx() != null) {
+                    onTx(activity.data().getTx(), activity.status());
+                }
+            }
+            case WebhookEventDtoV1.ReorgEvent reorg -> {
+                negativeCacheService.invalidateAll(Kind.TX);
+                negativeCacheService.invalidateAll(Kind.MEM_TRANSFER);
+                // Balances and pending transfers of any address may have moved
+                evictNodeCalls(CacheConfig.SHORT_LIVED, key -> true);
+                evictNodeCalls(CacheConfig.MEDIUM_LIVED, key -> true);
+                cacheEpochService.onReorg(reorg);
+            }
+        }
+    }
+
+    /**
+     * Confirmed transfer pages of every address touched by the block shift by
+     * the new transfers. If the affected addresses cannot be resolved, all pages
+     * are dropped rather than served stale.
+     */
+    private void onNewBlock(BlockchainBlockHeaderDtoV1 block) {
+        if (block == null || block.getHeader() == null || block.getHeader().getHeight() == null) {
+            offHeapTransferPageStore.invalidateAll();
+            return;
+        }
+        try {
+            List<String> affected = explorerNodeService.getAffectedAddressesByHeight(block.getHeader().getHeight());
+            if (affected == null) {
+                return;
+            }
+            List<Address> addresses = new ArrayList<>(affected.size());
+            for (String address : affected) {
+                addresses.add(Address.fromHexString(address));
+            }
+            offHeapTransferPageStore.invalidateAddresses(addresses);
+        } catch (Exception e) {
+            log.warn("Failed to resolve addresses affected by block {}: {}", block.getHeader().getHeight(),
+                    e.getMessage());
+            offHeapTransferPageStore.invalidateAll();
+        }
+    }
+
+    private void onTx(TxDtoV1 tx, WebhookTxStatus status) {
+        if (tx.getHash() != null) {
+            Hash hash = Hash.fromHexString(tx.getHash());
+            negativeCacheService.invalidate(Kind.TX, hash);
+            negativeCacheService.invalidate(Kind.MEM_TRANSFER, hash);
+        }
+        Address tokenAddress = tx.getTokenAddress() != null ? Address.fromHexString(tx.getTokenAddress())
+                : Address.ZERO;
+        if (tx.getSender() != null) {
+            Address sender = Address.fromHexString(tx.getSender());
+            negativeCacheService.invalidate(Kind.ACCOUNT_BALANCE, new AccountKey(sender, tokenAddress));
+            // The fee is always paid in the native token
+            negativeCacheService.invalidate(Kind.ACCOUNT_BALANCE, new AccountKey(sender, Address.ZERO));
+        }
+        if (tx.getRecipient() != null) {
+            negativeCacheService.invalidate(Kind.ACCOUNT_BALANCE,
+                    new AccountKey(Address.fromHexString(tx.getRecipient()), tokenAddress));
+        }
+        List<Address> parties = new ArrayList<>(2);
+        if (tx.getSender() != null) {
+            parties.add(Address.fromHexString(tx.getSender()));
+        }
+        if (tx.getRecipient() != null) {
+            parties.add(Address.fromHexString(tx.getRecipient()));
+        }
+        // Every status moves the pending transfers, and with them the balance shown
+        evictNodeCalls(CacheConfig.SHORT_LIVED, key -> touches(key, parties));
+        evictNodeCalls(CacheConfig.MEDIUM_LIVED, key -> touches(key, parties));
+        if (status == WebhookTxStatus.CONFIRMED || status == WebhookTxStatus.REVERTED) {
+            offHeapTransferPageStore.invalidateAddresses(parties);
+        }
+    }
+
+    /**
+     * Drops cached node calls of the region whose key matches. Bulk calls are
+     * keyed by whole address sets, so they are matched by scanning the region.
+     */
+    private void evictNodeCalls(String cacheName, Predicate<MethodKey> matches) {
+        if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+            cache.getNativeCache().asMap().keySet()
+                    .removeIf(key -> key instanceof MethodKey methodKey && matches.test(methodKey));
+        }
+    }
+
+    /**
+     * True if any address set argument of the call holds one of the addresses,
+     * whatever token filter it was made with.
+     */
+    private static boolean touches(MethodKey key, Collection<Address> addresses) {
+        for (Object param : key.params()) {
+            if (param instanceof AddressSet set && addresses.stream().anyMatch(set::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.cache;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.exceptions.GENotFoundException;
+import global.goldenera.wallet.properties.NegativeCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Remembers node lookups that found nothing, so repeated requests for unknown
+ * tokens, transactions or accounts are answered without a node round trip.
+ * Entries expire after a short TTL and are dropped earlier by matching webhook
+ * events (see {@link CacheInvalidationService}).
+ */
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class NegativeCacheService {
+
+    public enum Kind {
+        TOKEN,
+        TX,
+        MEM_TRANSFER,
+        ACCOUNT_BALANCE
+    }
+
+    /**
+     * Key of an {@link Kind#ACCOUNT_BALANCE} lookup.
+     */
+    public record AccountKey(Address address, Address tokenAddress) {
+    }
+
+    Map<Kind, Cache<Object, Boolean>> caches = new EnumMap<>(Kind.class);
+    Map<Kind, Counter> absorbedCounters = new EnumMap<>(Kind.class);
+    Map<Kind, Counter> recordedCounters = new EnumMap<>(Kind.class);
+
+    public NegativeCacheService(NegativeCacheProperties negativeCacheProperties, MeterRegistry meterRegistry) {
+        for (Kind kind : Kind.values()) {
+            Cache<Object, Boolean> cache = Caffeine.newBuilder()
+                    .expireAfterWrite(negativeCacheProperties.getTtl())
+                    .maximumSize(negativeCacheProperties.getMaxSize())
+                    .build();
+            caches.put(kind, cache);
+            absorbedCounters.put(kind, Counter.builder("ge.cache.negative.absorbed")
+                    .description("Lookups answered from the negative cache")
+                    .tag("kind", kind.name())
+                    .register(meterRegistry));
+            recordedCounters.put(kind, Counter.builder("ge.cache.negative.recorded")
+                    .description("Lookups that found nothing on the node")
+                    .tag("kind", kind.name())
+                    .register(meterRegistry));
+            Gauge.builder("ge.cache.negative.size", cache, Cache::estimatedSize)
+                    .tag("kind", kind.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs the node lookup unless the key is already known to be missing.
+     * A missing item, either an empty body or a 404 from the node, is remembered
+     * and reported as {@link GENotFoundException}.
+     */
+    public <T> T lookup(Kind kind, Object key, Supplier<T> loader) {
+        Cache<Object, Boolean> cache = caches.get(kind);
+        if (cache.getIfPresent(key) != null) {
+            absorbedCounters.get(kind).increment();
+            throw notFound(kind, key);
+        }
+        T result;
+        try {
+            result = loader.get();
+        } catch (HttpClientErrorException.NotFound e) {
+            result = null;
+        }
+        if (result == null) {
+            cache.put(key, Boolean.TRUE);
+            recordedCounters.get(kind).increment();
+            throw notFound(kind, key);
+        }
+        return result;
+    }
+
+    public void invalidate(Kind kind, Object key) {
+        caches.get(kind).invalidate(key);
+    }
+
+    public void invalidateAll(Kind kind) {
+        caches.get(kind).invalidateAll();
+    }
+
+    private static GENotFoundException notFound(Kind kind, Object key) {
+        return new GENotFoundException(kind.name() + " not found: " + key);
+    }
+}
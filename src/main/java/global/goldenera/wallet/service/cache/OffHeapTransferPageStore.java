@@ -0,0 +1,327 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.cache;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BulkTransferPageRequestV1;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.properties.OffHeapCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Off-heap cache of confirmed transfer pages.
+ * <p>
+ * Pages are encoded by {@link TransferBinaryCodec} and appended to a ring of
+ * direct {@link ByteBuffer} segments that together form the byte budget. When
+ * the ring wraps, the oldest segment is recycled with all pages in it. Pages
+ * read from the older half of the ring are copied to the head again, so the
+ * ring approximates LRU order without per-entry bookkeeping on the heap.
+ * <p>
+ * Only the key index lives on the heap. Pages of an address are invalidated
+ * by sequence: every store and invalidation draws from one clock, a page is
+ * stale when any of its addresses was invalidated after the page was fetched.
+ */
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class OffHeapTransferPageStore {
+
+    public record PageKey(int pageNumber, int pageSize, AddressSet addresses, AddressSet tokenAddresses,
+            BulkTransferPageRequestV1.TypeEnum type) {
+    }
+
+    public record ConfirmedTransferPage(List<UnifiedTransferDtoV1> content, long totalElements) {
+    }
+
+    /**
+     * Clock value and cache epoch taken before the data of a page is fetched.
+     */
+    public record Mark(long sequence, long epoch) {
+    }
+
+    private record Slot(long segmentSeq, int offset, int length, long sequence, long storedAt, long epoch,
+            long derivedHeight) {
+    }
+
+    CacheEpochService cacheEpochService;
+
+    boolean enabled;
+    int segmentSize;
+    int segmentCount;
+    long maxAgeMillis;
+
+    ByteBuffer[] segments;
+    List<List<PageKey>> segmentKeys;
+    Map<PageKey, Slot> index = new ConcurrentHashMap<>();
+    Cache<Address, Long> invalidatedAt;
+    AtomicLong clock = new AtomicLong();
+    AtomicLong invalidatedAllAt = new AtomicLong();
+
+    ReentrantLock appendLock = new ReentrantLock();
+    StampedLock recycleLock = new StampedLock();
+    @NonFinal
+    volatile long headSegmentSeq;
+    @NonFinal
+    int headOffset;
+
+    Counter hits;
+    Counter misses;
+    Counter evictions;
+
+    public OffHeapTransferPageStore(OffHeapCacheProperties offHeapCacheProperties,
+            CacheEpochService cacheEpochService, MeterRegistry meterRegistry) {
+        this.cacheEpochService = cacheEpochService;
+        this.enabled = offHeapCacheProperties.isEnabled();
+        this.segmentSize = (int) offHeapCacheProperties.getSegmentSize().toBytes();
+        this.segmentCount = (int) Math.max(2, offHeapCacheProperties.getBudget().toBytes() / segmentSize);
+        this.maxAgeMillis = offHeapCacheProperties.getMaxAge().toMillis();
+        this.segments = new ByteBuffer[segmentCount];
+        this.segmentKeys = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segmentKeys.add(new ArrayList<>());
+        }
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(offHeapCacheProperties.getMaxAge())
+                .build();
+
+        this.hits = Counter.builder("ge.cache.off_heap.hits").register(meterRegistry);
+        this.misses = Counter.builder("ge.cache.off_heap.misses").register(meterRegistry);
+        this.evictions = Counter.builder("ge.cache.off_heap.evicted_pages").register(meterRegistry);
+        Gauge.builder("ge.cache.off_heap.pages", index, Map::size).register(meterRegistry);
+        Gauge.builder("ge.cache.off_heap.allocated_bytes", this, OffHeapTransferPageStore::allocatedBytes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the mark to pass to {@link #put} for data fetched afterwards.
+     * Invalidations and reorgs that happen while the data is being fetched win
+     * over it.
+     */
+    public Mark mark() {
+        return new Mark(clock.incrementAndGet(), cacheEpochService.currentEpoch());
+    }
+
+    /**
+     * Returns the cached page with confirmations computed for the given chain
+     * tip, or {@code null} on a miss.
+     */
+    public ConfirmedTransferPage get(PageKey key, Long currentBlockHeight) {
+        if (!enabled) {
+            return null;
+        }
+        Slot slot = index.get(key);
+        if (slot == null) {
+            misses.increment();
+            return null;
+        }
+        if (isStale(key, slot)) {
+            index.remove(key, slot);
+            misses.increment();
+            return null;
+        }
+        byte[] data = read(slot);
+        if (data == null) {
+            index.remove(key, slot);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (slot.segmentSeq() <= headSegmentSeq - segmentCount / 2) {
+            promote(key, slot, data);
+        }
+        return TransferBinaryCodec.decode(data, currentBlockHeight);
+    }
+
+    /**
+     * Stores a page fetched while the chain tip was at the given height.
+     */
+    public void put(PageKey key, ConfirmedTransferPage page, Mark mark, Long currentBlockHeight) {
+        if (!enabled) {
+            return;
+        }
+        byte[] data = TransferBinaryCodec.encode(page);
+        if (data.length > segmentSize) {
+            return;
+        }
+        long derivedHeight = derivedHeight(key, page, currentBlockHeight);
+        appendLock.lock();
+        try {
+            Slot slot = append(key, data, mark.sequence(), System.currentTimeMillis(), mark.epoch(), derivedHeight);
+            index.put(key, slot);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all pages that contain any of the given addresses.
+     */
+    public void invalidateAddresses(Collection<Address> addresses) {
+        for (Address address : addresses) {
+            invalidatedAt.put(address, clock.incrementAndGet());
+        }
+    }
+
+    public void invalidateAll() {
+        invalidatedAllAt.set(clock.incrementAndGet());
+    }
+
+    private boolean isStale(PageKey key, Slot slot) {
+        if (System.currentTimeMillis() - slot.storedAt() > maxAgeMillis) {
+            return true;
+        }
+        if (invalidatedAllAt.get() > slot.sequence()) {
+            return true;
+        }
+        if (!cacheEpochService.isValid(slot.epoch(), slot.derivedHeight())) {
+            return true;
+        }
+        for (Address address : key.addresses()) {
+            Long invalidated = invalidatedAt.getIfPresent(address);
+            if (invalidated != null && invalidated > slot.sequence()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the page out of its segment. Writers only touch a segment again
+     * after recycling it, so an optimistic read that validates is consistent.
+     */
+    private byte[] read(Slot slot) {
+        long stamp = recycleLock.tryOptimisticRead();
+        if (stamp == 0 || slot.segmentSeq() <= headSegmentSeq - segmentCount) {
+            return null;
+        }
+        byte[] data = new byte[slot.length()];
+        segments[(int) (slot.segmentSeq() % segmentCount)].get(slot.offset(), data);
+        return recycleLock.validate(stamp) ? data : null;
+    }
+
+    private void promote(PageKey key, Slot slot, byte[] data) {
+        if (!appendLock.tryLock()) {
+            return;
+        }
+        try {
+            Slot promoted = append(key, data, slot.sequence(), slot.storedAt(), slot.epoch(),
+                    slot.derivedHeight());
+            index.replace(key, slot, promoted);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Slot append(PageKey key, byte[] data, long sequence, long storedAt, long epoch, long derivedHeight) {
+        if (segments[(int) (headSegmentSeq % segmentCount)] == null) {
+            segments[(int) (headSegmentSeq % segmentCount)] = ByteBuffer.allocateDirect(segmentSize);
+        }
+        if (headOffset + data.length > segmentSize) {
+            advance();
+        }
+        int segment = (int) (headSegmentSeq % segmentCount);
+        segments[segment].put(headOffset, data);
+        segmentKeys.get(segment).add(key);
+        Slot slot = new Slot(headSegmentSeq, headOffset, data.length, sequence, storedAt, epoch, derivedHeight);
+        headOffset += data.length;
+        return slot;
+    }
+
+    /**
+     * Moves the head to the next segment, dropping every page still stored in
+     * it.
+     */
+    private void advance() {
+        long stamp = recycleLock.writeLock();
+        try {
+            long recycledSeq = headSegmentSeq + 1 - segmentCount;
+            headSegmentSeq++;
+            headOffset = 0;
+            int segment = (int) (headSegmentSeq % segmentCount);
+            List<PageKey> keys = segmentKeys.get(segment);
+            for (PageKey key : keys) {
+                Slot slot = index.get(key);
+                if (slot != null && slot.segmentSeq() == recycledSeq && index.remove(key, slot)) {
+                    evictions.increment();
+                }
+            }
+            keys.clear();
+            if (segments[segment] == null) {
+                segments[segment] = ByteBuffer.allocateDirect(segmentSize);
+            }
+        } finally {
+            recycleLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Highest block height the page depends on. The first page shows the newest
+     * transfers, so if none of them is above a fork, the orphaned blocks did not
+     * touch these addresses. Later pages are positioned by the newer transfers
+     * they do not show, so they depend on the whole chain up to the tip.
+     */
+    private static long derivedHeight(PageKey key, ConfirmedTransferPage page, Long currentBlockHeight) {
+        if (key.pageNumber() > 0) {
+            return currentBlockHeight != null ? currentBlockHeight : Long.MAX_VALUE;
+        }
+        long max = 0;
+        for (UnifiedTransferDtoV1 transfer : page.content()) {
+            if (transfer.blockHeight() != null) {
+                max = Math.max(max, transfer.blockHeight());
+            }
+        }
+        return max;
+    }
+
+    private double allocatedBytes() {
+        long allocated = 0;
+        for (ByteBuffer segment : segments) {
+            if (segment != null) {
+                allocated += segment.capacity();
+            }
+        }
+        return allocated;
+    }
+}
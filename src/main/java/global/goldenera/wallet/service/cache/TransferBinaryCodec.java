@@ -0,0 +1,271 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.cache;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tuweni.units.ethereum.Wei;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1.TransferStatus;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1.TransferType;
+import global.goldenera.wallet.service.cache.OffHeapTransferPageStore.ConfirmedTransferPage;
+
+/**
+ * Compact binary form of a confirmed transfer page.
+ *
+ * <pre>
+ * page     := varint(totalElements) varint(count) transfer*
+ * transfer := varint(presence) field*
+ * </pre>
+ *
+ * Fields follow in declaration order and are written only when their presence
+ * bit is set. Hashes take 32 bytes, addresses 20 bytes, amounts, fees and
+ * heights are unsigned LEB128 varints. Status is always CONFIRMED and
+ * confirmations are derived from the chain tip when decoding, so a stored page
+ * never goes stale by a new block alone.
+ */
+final class TransferBinaryCodec {
+
+    private static final int TX_HASH = 1;
+    private static final int TRANSFER_TYPE = 1 << 1;
+    private static final int FROM = 1 << 2;
+    private static final int TO = 1 << 3;
+    private static final int TOKEN_ADDRESS = 1 << 4;
+    private static final int AMOUNT = 1 << 5;
+    private static final int FEE = 1 << 6;
+    private static final int NONCE = 1 << 7;
+    private static final int MESSAGE = 1 << 8;
+    private static final int TIMESTAMP = 1 << 9;
+    private static final int BLOCK_HEIGHT = 1 << 10;
+    private static final int BLOCK_HASH = 1 << 11;
+
+    private static final TransferType[] TRANSFER_TYPES = TransferType.values();
+
+    private TransferBinaryCodec() {
+    }
+
+    static byte[] encode(ConfirmedTransferPage page) {
+        Writer writer = new Writer(64 + page.content().size() * 160);
+        writer.varint(page.totalElements());
+        writer.varint(page.content().size());
+        for (UnifiedTransferDtoV1 transfer : page.content()) {
+            encode(writer, transfer);
+        }
+        return writer.toByteArray();
+    }
+
+    static ConfirmedTransferPage decode(byte[] data, Long currentBlockHeight) {
+        Reader reader = new Reader(data);
+        long totalElements = reader.varint();
+        int count = (int) reader.varint();
+        List<UnifiedTransferDtoV1> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(decode(reader, currentBlockHeight));
+        }
+        return new ConfirmedTransferPage(content, totalElements);
+    }
+
+    private static void encode(Writer writer, UnifiedTransferDtoV1 transfer) {
+        int presence = (transfer.txHash() != null ? TX_HASH : 0)
+                | (transfer.transferType() != null ? TRANSFER_TYPE : 0)
+                | (transfer.from() != null ? FROM : 0)
+                | (transfer.to() != null ? TO : 0)
+                | (transfer.tokenAddress() != null ? TOKEN_ADDRESS : 0)
+                | (transfer.amount() != null ? AMOUNT : 0)
+                | (transfer.fee() != null ? FEE : 0)
+                | (transfer.nonce() != null ? NONCE : 0)
+                | (transfer.message() != null ? MESSAGE : 0)
+                | (transfer.timestamp() != null ? TIMESTAMP : 0)
+                | (transfer.blockHeight() != null ? BLOCK_HEIGHT : 0)
+                | (transfer.blockHash() != null ? BLOCK_HASH : 0);
+        writer.varint(presence);
+        if (transfer.txHash() != null) {
+            writer.bytes(transfer.txHash().toArray());
+        }
+        if (transfer.transferType() != null) {
+            writer.varint(transfer.transferType().ordinal());
+        }
+        if (transfer.from() != null) {
+            writer.bytes(transfer.from().toArray());
+        }
+        if (transfer.to() != null) {
+            writer.bytes(transfer.to().toArray());
+        }
+        if (transfer.tokenAddress() != null) {
+            writer.bytes(transfer.tokenAddress().toArray());
+        }
+        if (transfer.amount() != null) {
+            writer.varint(transfer.amount().toBigInteger());
+        }
+        if (transfer.fee() != null) {
+            writer.varint(transfer.fee().toBigInteger());
+        }
+        if (transfer.nonce() != null) {
+            writer.varint(transfer.nonce());
+        }
+        if (transfer.message() != null) {
+            byte[] message = transfer.message().getBytes(StandardCharsets.UTF_8);
+            writer.varint(message.length);
+            writer.bytes(message);
+        }
+        if (transfer.timestamp() != null) {
+            writer.varint(transfer.timestamp().getEpochSecond());
+            writer.varint(transfer.timestamp().getNano());
+        }
+        if (transfer.blockHeight() != null) {
+            writer.varint(transfer.blockHeight());
+        }
+        if (transfer.blockHash() != null) {
+            writer.bytes(transfer.blockHash().toArray());
+        }
+    }
+
+    private static UnifiedTransferDtoV1 decode(Reader reader, Long currentBlockHeight) {
+        int presence = (int) reader.varint();
+        Hash txHash = (presence & TX_HASH) != 0 ? Hash.wrap(reader.bytes(32)) : null;
+        TransferType transferType = (presence & TRANSFER_TYPE) != 0 ? TRANSFER_TYPES[(int) reader.varint()] : null;
+        Address from = (presence & FROM) != 0 ? Address.wrap(reader.bytes(20)) : null;
+        Address to = (presence & TO) != 0 ? Address.wrap(reader.bytes(20)) : null;
+        Address tokenAddress = (presence & TOKEN_ADDRESS) != 0 ? Address.wrap(reader.bytes(20)) : null;
+        Wei amount = (presence & AMOUNT) != 0 ? Wei.valueOf(reader.bigVarint()) : null;
+        Wei fee = (presence & FEE) != 0 ? Wei.valueOf(reader.bigVarint()) : null;
+        Long nonce = (presence & NONCE) != 0 ? reader.varint() : null;
+        String message = (presence & MESSAGE) != 0
+                ? new String(reader.bytes((int) reader.varint()), StandardCharsets.UTF_8)
+                : null;
+        Instant timestamp = (presence & TIMESTAMP) != 0 ? Instant.ofEpochSecond(reader.varint(), reader.varint())
+                : null;
+        Long blockHeight = (presence & BLOCK_HEIGHT) != 0 ? reader.varint() : null;
+        Hash blockHash = (presence & BLOCK_HASH) != 0 ? Hash.wrap(reader.bytes(32)) : null;
+
+        Long confirmations = null;
+        if (currentBlockHeight != null && blockHeight != null) {
+            confirmations = currentBlockHeight - blockHeight + 1;
+        }
+        return new UnifiedTransferDtoV1(TransferStatus.CONFIRMED, txHash, transferType, from, to, tokenAddress,
+                amount, fee, nonce, message, timestamp, blockHeight, blockHash, confirmations);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void varint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void varint(BigInteger value) {
+            if (value.bitLength() < Long.SIZE) {
+                varint(value.longValue());
+                return;
+            }
+            ensureCapacity(value.bitLength() / 7 + 1);
+            BigInteger remaining = value;
+            while (remaining.bitLength() > 7) {
+                buffer[position++] = (byte) ((remaining.intValue() & 0x7F) | 0x80);
+                remaining = remaining.shiftRight(7);
+            }
+            buffer[position++] = (byte) remaining.intValue();
+        }
+
+        void bytes(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (position + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        BigInteger bigVarint() {
+            int start = position;
+            while ((buffer[position] & 0x80) != 0) {
+                position++;
+            }
+            position++;
+            if (position - start <= 9) {
+                position = start;
+                return BigInteger.valueOf(varint());
+            }
+            BigInteger value = BigInteger.ZERO;
+            for (int i = position - 1; i >= start; i--) {
+                value = value.shiftLeft(7).or(BigInteger.valueOf(buffer[i] & 0x7F));
+            }
+            return value;
+        }
+
+        byte[] bytes(int length) {
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -25,6 +25,9 @@ package global.goldenera.wallet.service.core;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -60,14 +63,42 @@ public class DeviceCoreService {
     }
 
     @Transactional(rollbackFor = Exception.class)
-    public void upsert(Device device) {
-        deviceRepository.upsert(
+    public Device upsert(Device device) {
+        return deviceRepository.upsert(
                 device.getClientIdentifier(),
                 device.getPlatform(),
                 device.getFcmToken(),
                 device.getAppVersion());
     }
 
+    @Transactional(rollbackFor = Exception.class)
+    public List<Device> upsertAll(Collection<Device> devices) {
+        int size = devices.size();
+        UUID[] clientIdentifiers = new UUID[size];
+        String[] platforms = new String[size];
+        String[] fcmTokens = new String[size];
+        String[] appVersions = new String[size];
+        int i = 0;
+        for (Device device : devices) {
+            clientIdentifiers[i] = device.getClientIdentifier();
+            platforms[i] = device.getPlatform();
+            fcmTokens[i] = device.getFcmToken();
+            appVersions[i] = device.getAppVersion();
+            i++;
+        }
+        return deviceRepository.upsertAll(clientIdentifiers, platforms, fcmTokens, appVersions);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public int updateLastSeenAt(UUID[] clientIdentifiers, Instant[] seenAts) {
+        return deviceRepository.updateLastSeenAt(clientIdentifiers, seenAts);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public int clearFcmTokens(Collection<String> fcmTokens) {
+        return deviceRepository.clearFcmTokens(fcmTokens);
+    }
+
     @Transactional(rollbackFor = Exception.class)
     public Device save(Device device) {
         return deviceRepository.persist(device);
@@ -25,8 +25,18 @@ package global.goldenera.wallet.service.core;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.entities.TrackedAddress;
+import global.goldenera.wallet.repositories.TrackedAddressRepository;
+import global.goldenera.wallet.utils.SequenceUtil;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
@@ -35,4 +45,61 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class TrackedAddressCoreService {
 
+    TrackedAddressRepository trackedAddressRepository;
+
+    /**
+     * Ids of the tracked addresses. Missing addresses are inserted with one bulk
+     * insert, addresses inserted concurrently by another request are read back.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Map<Address, Long> getOrCreateIds(Collection<Address> addresses) {
+        Map<Address, Long> ids = new HashMap<>();
+        if (addresses.isEmpty()) {
+            return ids;
+        }
+        for (TrackedAddress trackedAddress : trackedAddressRepository.findAllByAddressIn(addresses)) {
+            ids.put(trackedAddress.getAddress(), trackedAddress.getId());
+        }
+        List<Address> missing = addresses.stream().distinct().filter(address -> !ids.containsKey(address)).toList();
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        Long[] newIds = SequenceUtil.allocateIds(missing.size(), TrackedAddress.ID_ALLOCATION_SIZE,
+                trackedAddressRepository::nextIdValues);
+        String[] hexAddresses = new String[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            hexAddresses[i] = missing.get(i).toUnprefixedHexString();
+        }
+        int inserted = trackedAddressRepository.insertAllIgnoringExisting(newIds, hexAddresses);
+        if (inserted == missing.size()) {
+            for (int i = 0; i < missing.size(); i++) {
+                ids.put(missing.get(i), newIds[i]);
+            }
+        } else {
+            for (TrackedAddress trackedAddress : trackedAddressRepository.findAllByAddressIn(missing)) {
+                ids.put(trackedAddress.getAddress(), trackedAddress.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Deletes the given tracked addresses that no device tracks anymore.
+     *
+     * @return the deleted addresses
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Address> deleteOrphaned(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Rows share-locked by a concurrent link are skipped, the link keeps them
+        List<TrackedAddress> orphaned = trackedAddressRepository.findOrphanedByIds(ids);
+        if (orphaned.isEmpty()) {
+            return List.of();
+        }
+        trackedAddressRepository.deleteOrphanedByIds(orphaned.stream().map(TrackedAddress::getId).toList());
+        return orphaned.stream().map(TrackedAddress::getAddress).toList();
+    }
 }
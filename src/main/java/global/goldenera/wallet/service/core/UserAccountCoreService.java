@@ -25,8 +25,19 @@ package global.goldenera.wallet.service.core;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.entities.UserAccount;
+import global.goldenera.wallet.repositories.UserAccountRepository;
+import global.goldenera.wallet.repositories.UserAccountRepository.TrackedAddressLink;
+import global.goldenera.wallet.utils.SequenceUtil;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
@@ -35,4 +46,39 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class UserAccountCoreService {
 
+    UserAccountRepository userAccountRepository;
+
+    /**
+     * Tracked address ids of the device by address.
+     */
+    @Transactional(readOnly = true)
+    public Map<Address, Long> getTrackedAddressIds(UUID deviceId) {
+        Map<Address, Long> ids = new HashMap<>();
+        for (TrackedAddressLink link : userAccountRepository.findTrackedAddressLinksByDeviceId(deviceId)) {
+            ids.put(link.getAddress(), link.getTrackedAddressId());
+        }
+        return ids;
+    }
+
+    /**
+     * Links the device to the tracked addresses with one bulk insert, existing
+     * links are kept.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int link(UUID deviceId, Collection<Long> trackedAddressIds) {
+        if (trackedAddressIds.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = SequenceUtil.allocateIds(trackedAddressIds.size(), UserAccount.ID_ALLOCATION_SIZE,
+                userAccountRepository::nextIdValues);
+        return userAccountRepository.insertAllIgnoringExisting(deviceId, ids, trackedAddressIds.toArray(Long[]::new));
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public int unlink(UUID deviceId, Collection<Long> trackedAddressIds) {
+        if (trackedAddressIds.isEmpty()) {
+            return 0;
+        }
+        return userAccountRepository.deleteByDeviceIdAndTrackedAddressIds(deviceId, trackedAddressIds);
+    }
 }
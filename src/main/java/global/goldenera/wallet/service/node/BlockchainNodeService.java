@@ -29,21 +29,25 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
 
 import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
 import global.goldenera.wallet.api.core.v1.wallet.dtos.TokenDtoV1;
 import global.goldenera.wallet.api.core.v1.wallet.mappers.WalletMapper;
 import global.goldenera.wallet.client.node.api.v1.BlockchainApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.MempoolApiV1Api;
 import global.goldenera.wallet.client.node.model.v1.AccountSummaryDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BlockchainBlockHeaderDtoV1;
 import global.goldenera.wallet.client.node.model.v1.MempoolResult;
 import global.goldenera.wallet.client.node.model.v1.MempoolSubmitTxDtoV1;
 import global.goldenera.wallet.client.node.model.v1.RecommendedFeesDtoV1;
 import global.goldenera.wallet.client.node.model.v1.TokenStateDtoV1;
+import global.goldenera.wallet.config.CacheConfig;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
@@ -60,11 +64,22 @@ public class BlockchainNodeService {
     MempoolApiV1Api mempoolApi;
     WalletMapper walletMapper;
 
+    @Cacheable(cacheNames = CacheConfig.SHORT_LIVED)
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public Long getLatestBlockHeight() {
         return blockchainApi.getLatestBlockHeight().getBody();
     }
 
+    @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
+    public Hash getBlockHashByHeight(Long height) {
+        return walletMapper.stringToHash(blockchainApi.getBlockHashByHeight(height).getBody());
+    }
+
+    @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
+    public List<BlockchainBlockHeaderDtoV1> getBlockHeadersByRange(Long fromHeight, Long toHeight) {
+        return blockchainApi.getBlockHeaderByRange(fromHeight, toHeight, false).getBody();
+    }
+
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public AccountSummaryDtoV1 getAccountSummary(Address address, Address tokenAddress) {
         return blockchainApi.getAccountSummary(address.toChecksumAddress(),
@@ -25,9 +25,9 @@ package global.goldenera.wallet.service.node;
 
 import static lombok.AccessLevel.PRIVATE;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
@@ -36,6 +36,7 @@ import org.springframework.web.client.ResourceAccessException;
 import global.goldenera.cryptoj.datatypes.Address;
 import global.goldenera.cryptoj.datatypes.Hash;
 import global.goldenera.wallet.client.node.api.v1.AccountBalanceApiV1Api;
+import global.goldenera.wallet.client.node.api.v1.BlockHeaderApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.MemTransferApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.TokenApiV1Api;
 import global.goldenera.wallet.client.node.api.v1.TransferApiV1Api;
@@ -53,12 +54,18 @@ import global.goldenera.wallet.client.node.model.v1.TokenDtoV1Page;
 import global.goldenera.wallet.client.node.model.v1.TransferDtoV1;
 import global.goldenera.wallet.client.node.model.v1.TransferDtoV1Page;
 import global.goldenera.wallet.client.node.model.v1.TxDtoV1;
+import global.goldenera.wallet.config.CacheConfig;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.service.cache.NegativeCacheService;
+import global.goldenera.wallet.service.cache.NegativeCacheService.AccountKey;
+import global.goldenera.wallet.service.cache.NegativeCacheService.Kind;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 /**
  * Service layer for Explorer API with retry support.
  * Wraps the generated Explorer API client interfaces.
+ * Single item lookups remember misses in {@link NegativeCacheService}.
  */
 @Service
 @AllArgsConstructor
@@ -70,6 +77,8 @@ public class ExplorerNodeService {
     TransferApiV1Api transferApi;
     TxApiV1Api txApi;
     TokenApiV1Api tokenApi;
+    BlockHeaderApiV1Api blockHeaderApi;
+    NegativeCacheService negativeCacheService;
 
     // ==================== Account Balance API ====================
 
@@ -78,10 +87,11 @@ public class ExplorerNodeService {
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public AccountBalanceDtoV1 getAccountBalanceByAddress(Address address, Address tokenAddress) {
-        return accountBalanceApi
-                .apiV1AccountBalanceGetByAddressAndTokenContractAddress(address.toChecksumAddress(),
-                        tokenAddress.toChecksumAddress())
-                .getBody();
+        return negativeCacheService.lookup(Kind.ACCOUNT_BALANCE, new AccountKey(address, tokenAddress),
+                () -> accountBalanceApi
+                        .apiV1AccountBalanceGetByAddressAndTokenContractAddress(address.toChecksumAddress(),
+                                tokenAddress.toChecksumAddress())
+                        .getBody());
     }
 
     /**
@@ -95,14 +105,15 @@ public class ExplorerNodeService {
     /**
      * Get account balances in bulk for multiple addresses.
      */
+    @Cacheable(cacheNames = CacheConfig.MEDIUM_LIVED)
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
-    public AccountBalanceDtoV1Page getAccountBalancesBulk(Integer pageNumber, Integer pageSize, Set<Address> addresses,
-            Set<Address> tokenAddresses) {
+    public AccountBalanceDtoV1Page getAccountBalancesBulk(Integer pageNumber, Integer pageSize, AddressSet addresses,
+            AddressSet tokenAddresses) {
         var request = new BulkAccountBalancePageRequestV1()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
-                .addresses(addresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()))
-                .tokenAddresses(tokenAddresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()));
+                .addresses(addresses.toChecksumAddresses())
+                .tokenAddresses(tokenAddresses.toChecksumAddresses());
         return accountBalanceApi.apiV1AccountBalanceGetPageBulk(request).getBody();
     }
 
@@ -113,7 +124,8 @@ public class ExplorerNodeService {
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public MemTransferDtoV1 getMemTransferByHash(Hash hash) {
-        return memTransferApi.apiV1MemTransferGetByHash(hash.toHexString()).getBody();
+        return negativeCacheService.lookup(Kind.MEM_TRANSFER, hash,
+                () -> memTransferApi.apiV1MemTransferGetByHash(hash.toHexString()).getBody());
     }
 
     /**
@@ -127,15 +139,16 @@ public class ExplorerNodeService {
     /**
      * Get mempool transfers in bulk for multiple addresses.
      */
+    @Cacheable(cacheNames = CacheConfig.SHORT_LIVED)
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
-    public MemTransferDtoV1Page getMemTransfersBulk(Integer pageNumber, Integer pageSize, Set<Address> addresses,
-            Set<Address> tokenAddresses, TransferTypeEnum transferType) {
+    public MemTransferDtoV1Page getMemTransfersBulk(Integer pageNumber, Integer pageSize, AddressSet addresses,
+            AddressSet tokenAddresses, TransferTypeEnum transferType) {
         var request = new BulkMemTransferPageRequestV1()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
                 .direction(BulkMemTransferPageRequestV1.DirectionEnum.DESC)
-                .addresses(addresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()))
-                .tokenAddresses(tokenAddresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()))
+                .addresses(addresses.toChecksumAddresses())
+                .tokenAddresses(tokenAddresses.toChecksumAddresses())
                 .transferType(transferType);
         return memTransferApi.apiV1MemTransferGetPageBulk(request).getBody();
     }
@@ -162,14 +175,14 @@ public class ExplorerNodeService {
      * Get confirmed transfers in bulk for multiple addresses.
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
-    public TransferDtoV1Page getTransfersBulk(Integer pageNumber, Integer pageSize, Set<Address> addresses,
-            Set<Address> tokenAddresses, BulkTransferPageRequestV1.TypeEnum transferType) {
+    public TransferDtoV1Page getTransfersBulk(Integer pageNumber, Integer pageSize, AddressSet addresses,
+            AddressSet tokenAddresses, BulkTransferPageRequestV1.TypeEnum transferType) {
         var request = new BulkTransferPageRequestV1()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
                 .direction(BulkTransferPageRequestV1.DirectionEnum.DESC)
-                .addresses(addresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()))
-                .tokenAddresses(tokenAddresses.stream().map(Address::toChecksumAddress).collect(Collectors.toSet()))
+                .addresses(addresses.toChecksumAddresses())
+                .tokenAddresses(tokenAddresses.toChecksumAddresses())
                 .type(transferType);
         return transferApi.apiV1TransferGetPageBulk(request).getBody();
     }
@@ -181,7 +194,8 @@ public class ExplorerNodeService {
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public TxDtoV1 getTxByHash(Hash hash) {
-        return txApi.apiV1TxGetByHash(hash.toHexString()).getBody();
+        return negativeCacheService.lookup(Kind.TX, hash,
+                () -> txApi.apiV1TxGetByHash(hash.toHexString()).getBody());
     }
 
     /**
@@ -189,7 +203,8 @@ public class ExplorerNodeService {
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public Long getTxConfirmationsByHash(Hash hash) {
-        return txApi.apiV1TxGetConfirmationsByHash(hash.toHexString()).getBody();
+        return negativeCacheService.lookup(Kind.TX, hash,
+                () -> txApi.apiV1TxGetConfirmationsByHash(hash.toHexString()).getBody());
     }
 
     /**
@@ -207,7 +222,8 @@ public class ExplorerNodeService {
      */
     @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
     public TokenDtoV1 getTokenByAddress(Address address) {
-        return tokenApi.apiV1TokenGetByAddress(address.toChecksumAddress()).getBody();
+        return negativeCacheService.lookup(Kind.TOKEN, address,
+                () -> tokenApi.apiV1TokenGetByAddress(address.toChecksumAddress()).getBody());
     }
 
     /**
@@ -226,4 +242,14 @@ public class ExplorerNodeService {
         return tokenApi.apiV1TokenGetPage(pageNumber, pageSize, null, null, null, null, null, null, null, null, null,
                 null, null).getBody();
     }
+
+    // ==================== Block Header API ====================
+
+    /**
+     * Get addresses whose state was changed by the block at the given height.
+     */
+    @Retryable(retryFor = ResourceAccessException.class, maxAttempts = 3, backoff = @Backoff(delay = 500))
+    public List<String> getAffectedAddressesByHeight(Long height) {
+        return blockHeaderApi.apiV1BlockGetAffectedAddressesByHeight(height).getBody();
+    }
 }
@@ -0,0 +1,364 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.push;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.repositories.UserAccountRepository;
+import global.goldenera.wallet.repositories.UserAccountRepository.DeviceAddressLink;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory routing of tracked addresses to the devices tracking them.
+ * <p>
+ * Addresses live in an open-addressing table with linear probing: the raw
+ * 20-byte keys are packed into one byte array, and every slot holds a sorted
+ * int array of device ordinals. Ordinals map to device ids through two
+ * parallel long arrays. The index is loaded at startup; changes of user
+ * accounts are applied once their transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class DeviceRoutingIndex {
+
+    private static final int ADDRESS_BYTES = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final UUID[] NO_DEVICES = new UUID[0];
+
+    UserAccountRepository userAccountRepository;
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @NonFinal
+    byte[] keys = new byte[INITIAL_CAPACITY * ADDRESS_BYTES];
+    /**
+     * Device ordinals per slot, {@code null} marks an empty slot.
+     */
+    @NonFinal
+    int[][] slots = new int[INITIAL_CAPACITY][];
+    @NonFinal
+    int size;
+
+    @NonFinal
+    long[] deviceMostSigBits = new long[INITIAL_CAPACITY];
+    @NonFinal
+    long[] deviceLeastSigBits = new long[INITIAL_CAPACITY];
+    Map<UUID, Integer> ordinals = new HashMap<>();
+    BitSet freeOrdinals = new BitSet();
+    @NonFinal
+    int nextOrdinal;
+
+    @PostConstruct
+    public void load() {
+        long afterId = 0;
+        int links = 0;
+        List<DeviceAddressLink> page;
+        do {
+            page = userAccountRepository.findDeviceAddressLinksAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (DeviceAddressLink link : page) {
+                    link(link.getDeviceId(), link.getAddress());
+                    afterId = link.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            links += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Device routing index loaded, {} links over {} addresses.", links, size);
+    }
+
+    public UUID[] getDeviceIds(Address address) {
+        byte[] key = address.toArrayUnsafe();
+        lock.readLock().lock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                return NO_DEVICES;
+            }
+            int[] deviceOrdinals = slots[slot];
+            UUID[] deviceIds = new UUID[deviceOrdinals.length];
+            for (int i = 0; i < deviceOrdinals.length; i++) {
+                deviceIds[i] = new UUID(deviceMostSigBits[deviceOrdinals[i]], deviceLeastSigBits[deviceOrdinals[i]]);
+            }
+            return deviceIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reports new user accounts of a device. Applied after the current
+     * transaction commits.
+     */
+    public void onLinked(UUID deviceId, Collection<Address> addresses) {
+        afterCommit(() -> addresses.forEach(address -> link(deviceId, address)));
+    }
+
+    /**
+     * Reports removed user accounts of a device. Applied after the current
+     * transaction commits.
+     */
+    public void onUnlinked(UUID deviceId, Collection<Address> addresses) {
+        afterCommit(() -> addresses.forEach(address -> unlink(deviceId, address)));
+    }
+
+    /**
+     * Reports deleted devices, their user accounts are gone with them. Applied
+     * after the current transaction commits.
+     */
+    public void onDevicesDeleted(Collection<UUID> deviceIds) {
+        afterCommit(() -> removeDevices(deviceIds));
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locked.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                locked.run();
+            }
+        });
+    }
+
+    // Everything below runs under the write lock
+
+    private void link(UUID deviceId, Address address) {
+        int ordinal = ordinalOf(deviceId);
+        byte[] key = address.toArrayUnsafe();
+        int slot = find(key);
+        if (slot >= 0) {
+            int[] deviceOrdinals = slots[slot];
+            int position = Arrays.binarySearch(deviceOrdinals, ordinal);
+            if (position < 0) {
+                int insertAt = -position - 1;
+                int[] grown = new int[deviceOrdinals.length + 1];
+                System.arraycopy(deviceOrdinals, 0, grown, 0, insertAt);
+                grown[insertAt] = ordinal;
+                System.arraycopy(deviceOrdinals, insertAt, grown, insertAt + 1, deviceOrdinals.length - insertAt);
+                slots[slot] = grown;
+            }
+            return;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+            slot = find(key);
+        }
+        slot = -slot - 1;
+        System.arraycopy(key, 0, keys, slot * ADDRESS_BYTES, ADDRESS_BYTES);
+        slots[slot] = new int[] { ordinal };
+        size++;
+    }
+
+    private void unlink(UUID deviceId, Address address) {
+        Integer ordinal = ordinals.get(deviceId);
+        int slot = find(address.toArrayUnsafe());
+        if (ordinal == null || slot < 0) {
+            return;
+        }
+        int[] deviceOrdinals = slots[slot];
+        int position = Arrays.binarySearch(deviceOrdinals, ordinal);
+        if (position < 0) {
+            return;
+        }
+        if (deviceOrdinals.length == 1) {
+            delete(slot);
+            return;
+        }
+        int[] shrunk = new int[deviceOrdinals.length - 1];
+        System.arraycopy(deviceOrdinals, 0, shrunk, 0, position);
+        System.arraycopy(deviceOrdinals, position + 1, shrunk, position, shrunk.length - position);
+        slots[slot] = shrunk;
+    }
+
+    /**
+     * Drops the devices from every slot in one pass and frees their ordinals.
+     * Slots left without devices are deleted in place, the table is not rebuilt.
+     */
+    private void removeDevices(Collection<UUID> deviceIds) {
+        BitSet removed = new BitSet();
+        for (UUID deviceId : deviceIds) {
+            Integer ordinal = ordinals.remove(deviceId);
+            if (ordinal != null) {
+                removed.set(ordinal);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        int slot = 0;
+        while (slot < slots.length) {
+            int[] deviceOrdinals = slots[slot];
+            if (deviceOrdinals == null || Arrays.stream(deviceOrdinals).noneMatch(removed::get)) {
+                slot++;
+                continue;
+            }
+            int[] remaining = Arrays.stream(deviceOrdinals).filter(ordinal -> !removed.get(ordinal)).toArray();
+            if (remaining.length > 0) {
+                slots[slot] = remaining;
+                slot++;
+            } else {
+                // A not yet visited entry may have shifted into this slot
+                delete(slot);
+            }
+        }
+        freeOrdinals.or(removed);
+    }
+
+    private int ordinalOf(UUID deviceId) {
+        Integer existing = ordinals.get(deviceId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal >= 0) {
+            freeOrdinals.clear(ordinal);
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal == deviceMostSigBits.length) {
+                deviceMostSigBits = Arrays.copyOf(deviceMostSigBits, ordinal * 2);
+                deviceLeastSigBits = Arrays.copyOf(deviceLeastSigBits, ordinal * 2);
+            }
+        }
+        deviceMostSigBits[ordinal] = deviceId.getMostSignificantBits();
+        deviceLeastSigBits[ordinal] = deviceId.getLeastSignificantBits();
+        ordinals.put(deviceId, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * @return the slot of the key, or {@code -(insertion slot) - 1} if absent
+     */
+    private int find(byte[] key) {
+        int mask = slots.length - 1;
+        int slot = home(key, 0, mask);
+        while (slots[slot] != null) {
+            if (Arrays.equals(keys, slot * ADDRESS_BYTES, (slot + 1) * ADDRESS_BYTES, key, 0, ADDRESS_BYTES)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    /**
+     * Backward-shift deletion, keeps probe sequences intact without tombstones.
+     */
+    private void delete(int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        slots[hole] = null;
+        int next = (hole + 1) & mask;
+        while (slots[next] != null) {
+            int home = home(keys, next * ADDRESS_BYTES, mask);
+            boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!stays) {
+                System.arraycopy(keys, next * ADDRESS_BYTES, keys, hole * ADDRESS_BYTES, ADDRESS_BYTES);
+                slots[hole] = slots[next];
+                slots[next] = null;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        size--;
+    }
+
+    /**
+     * Rebuilds the table with the given capacity.
+     */
+    private void rehash(int capacity) {
+        byte[] oldKeys = keys;
+        int[][] oldSlots = slots;
+        keys = new byte[capacity * ADDRESS_BYTES];
+        slots = new int[capacity][];
+        size = 0;
+        int mask = capacity - 1;
+        for (int old = 0; old < oldSlots.length; old++) {
+            if (oldSlots[old] == null) {
+                continue;
+            }
+            int slot = home(oldKeys, old * ADDRESS_BYTES, mask);
+            while (slots[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            System.arraycopy(oldKeys, old * ADDRESS_BYTES, keys, slot * ADDRESS_BYTES, ADDRESS_BYTES);
+            slots[slot] = oldSlots[old];
+            size++;
+        }
+    }
+
+    /**
+     * Addresses are hash outputs already, their first bytes only get mixed.
+     */
+    private static int home(byte[] source, int offset, int mask) {
+        long h = ByteBuffer.wrap(source, offset, 8).getLong();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
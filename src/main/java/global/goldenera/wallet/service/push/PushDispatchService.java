@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.push;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.TxDtoV1;
+import global.goldenera.wallet.properties.PushProperties;
+import global.goldenera.wallet.repositories.DeviceRepository;
+import global.goldenera.wallet.repositories.DeviceRepository.DeviceToken;
+import global.goldenera.wallet.service.core.DeviceCoreService;
+import global.goldenera.wallet.service.webhook.WebhookEventBus;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notifies the devices tracking an address about its transfers.
+ * <p>
+ * ADDRESS_ACTIVITY events from the event bus are routed to devices through the
+ * {@link DeviceRoutingIndex}, resolved to device tokens and queued. A single virtual thread sends the queue in batches of up to the
+ * provider's batch size, rate-limited per provider call, and removes tokens
+ * the provider reports as invalid.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class PushDispatchService {
+
+    private record Message(String title, String body) {
+    }
+
+    PushProperties pushProperties;
+    PushProvider pushProvider;
+    DeviceRoutingIndex deviceRoutingIndex;
+    DeviceRepository deviceRepository;
+    DeviceCoreService deviceCoreService;
+    WebhookEventBus webhookEventBus;
+    BlockingQueue<PushNotification> queue;
+    Bucket bucket;
+
+    Counter sentCounter;
+    Counter failedCounter;
+    Counter droppedCounter;
+    Counter prunedCounter;
+
+    @NonFinal
+    Thread dispatcher;
+
+    public PushDispatchService(PushProperties pushProperties, PushProvider pushProvider,
+            DeviceRoutingIndex deviceRoutingIndex, DeviceRepository deviceRepository,
+            DeviceCoreService deviceCoreService, WebhookEventBus webhookEventBus, MeterRegistry meterRegistry) {
+        this.pushProperties = pushProperties;
+        this.pushProvider = pushProvider;
+        this.deviceRoutingIndex = deviceRoutingIndex;
+        this.deviceRepository = deviceRepository;
+        this.deviceCoreService = deviceCoreService;
+        this.webhookEventBus = webhookEventBus;
+        this.queue = new LinkedBlockingQueue<>(pushProperties.getQueueCapacity());
+        this.bucket = Bucket.builder()
+                .addLimit(limit -> limit.capacity(pushProperties.getRequestsPerSecond())
+                        .refillGreedy(pushProperties.getRequestsPerSecond(), Duration.ofSeconds(1)))
+                .build();
+        this.sentCounter = counter(meterRegistry, "sent");
+        this.failedCounter = counter(meterRegistry, "failed");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.prunedCounter = counter(meterRegistry, "pruned");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!pushProperties.isEnabled()) {
+            return;
+        }
+        webhookEventBus.subscribe("push", WebhookEventDtoV1.AddressActivityEvent.class, this::onActivity,
+                () -> log.warn("Push notifications were lost, the push subscriber fell behind."));
+        dispatcher = Thread.ofVirtual().name("push-dispatcher").start(this::dispatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    private void onActivity(WebhookEventDtoV1.AddressActivityEvent activity) {
+        if (activity.data() == null || activity.data().getTx() == null || activity.status() == null) {
+            return;
+        }
+        TxDtoV1 tx = activity.data().getTx();
+        Map<Address, Message> messages = new HashMap<>();
+        Address sender = tx.getSender() != null ? Address.fromHexString(tx.getSender()) : null;
+        Address recipient = tx.getRecipient() != null ? Address.fromHexString(tx.getRecipient()) : null;
+        switch (activity.status()) {
+            case PENDING -> put(messages, recipient, "Incoming transfer", "A transfer to your wallet is pending.");
+            case CONFIRMED -> {
+                put(messages, recipient, "Transfer received", "A transfer to your wallet was confirmed.");
+                put(messages, sender, "Transfer confirmed", "Your transfer was confirmed.");
+            }
+            case DROPPED, REPLACED -> put(messages, sender, "Transfer dropped", "Your transfer was not included.");
+            case REVERTED -> {
+                put(messages, recipient, "Transfer reverted", "A received transfer was reverted by a reorg.");
+                put(messages, sender, "Transfer reverted", "Your transfer was reverted by a reorg.");
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        // A device tracking both parties gets both messages
+        Map<UUID, List<Address>> routes = new HashMap<>();
+        messages.keySet().forEach(address -> {
+            for (UUID deviceId : deviceRoutingIndex.getDeviceIds(address)) {
+                routes.computeIfAbsent(deviceId, k -> new ArrayList<>(2)).add(address);
+            }
+        });
+        if (routes.isEmpty()) {
+            return;
+        }
+        for (DeviceToken device : deviceRepository.findFcmTokensByIds(routes.keySet())) {
+            for (Address address : routes.get(device.getId())) {
+                Message message = messages.get(address);
+                Map<String, String> data = new HashMap<>();
+                data.put("address", address.toChecksumAddress());
+                data.put("status", activity.status().name());
+                if (tx.getHash() != null) {
+                    data.put("txHash", tx.getHash());
+                }
+                if (!queue.offer(new PushNotification(device.getFcmToken(), message.title(), message.body(),
+                        data))) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    private void dispatch() {
+        int batchSize = pushProvider.maxBatchSize();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<PushNotification> batch = new ArrayList<>(batchSize);
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + pushProperties.getLinger().toNanos();
+                while (batch.size() < batchSize) {
+                    PushNotification next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                bucket.asBlocking().consume(1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Push dispatch failed", e);
+            }
+        }
+    }
+
+    private void send(List<PushNotification> batch) {
+        List<PushProvider.Result> results;
+        try {
+            results = pushProvider.send(batch);
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Push provider failed on {} notifications: {}", batch.size(), e.getMessage());
+            return;
+        }
+        Set<String> invalidTokens = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            switch (results.get(i)) {
+                case SENT -> sentCounter.increment();
+                case INVALID_TOKEN -> invalidTokens.add(batch.get(i).token());
+                case FAILED -> failedCounter.increment();
+            }
+        }
+        if (!invalidTokens.isEmpty()) {
+            int pruned = deviceCoreService.clearFcmTokens(invalidTokens);
+            prunedCounter.increment(pruned);
+            log.info("Removed {} invalid push tokens.", pruned);
+        }
+    }
+
+    private static void put(Map<Address, Message> messages, Address address, String title, String body) {
+        if (address != null) {
+            messages.put(address, new Message(title, body));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ge.push.notifications")
+                .description("Push notifications by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
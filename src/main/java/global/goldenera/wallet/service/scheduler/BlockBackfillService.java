@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.scheduler;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BlockchainBlockHeaderDtoV1;
+import global.goldenera.wallet.client.node.model.v1.WebhookDtoV1;
+import global.goldenera.wallet.enums.WebhookEventType;
+import global.goldenera.wallet.properties.BlockBackfillProperties;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.system.ChainTipService;
+import global.goldenera.wallet.service.system.ChainTipService.Gap;
+import global.goldenera.wallet.service.webhook.WebhookIngestionService;
+import io.github.bucket4j.Bucket;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays blocks whose NEW_BLOCK webhook never arrived.
+ * <p>
+ * Gaps behind the contiguous height and up to the node's tip are fetched in
+ * parallel pages and enqueued as regular NEW_BLOCK events, so everything
+ * derived from blocks catches up without waiting for cache expiry. Blocks that
+ * also arrive by webhook are dropped as duplicates on enqueue.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class BlockBackfillService {
+
+    BlockBackfillProperties blockBackfillProperties;
+    ChainTipService chainTipService;
+    BlockchainNodeService blockchainNodeService;
+    WebhookIngestionService webhookIngestionService;
+    Bucket bucket;
+
+    public BlockBackfillService(BlockBackfillProperties blockBackfillProperties, ChainTipService chainTipService,
+            BlockchainNodeService blockchainNodeService, WebhookIngestionService webhookIngestionService) {
+        this.blockBackfillProperties = blockBackfillProperties;
+        this.chainTipService = chainTipService;
+        this.blockchainNodeService = blockchainNodeService;
+        this.webhookIngestionService = webhookIngestionService;
+        this.bucket = Bucket.builder()
+                .addLimit(limit -> limit.capacity(blockBackfillProperties.getRequestsPerSecond())
+                        .refillGreedy(blockBackfillProperties.getRequestsPerSecond(), Duration.ofSeconds(1)))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${ge.webhook.backfill.interval-ms}")
+    public void backfill() {
+        if (!blockBackfillProperties.isEnabled() || chainTipService.getContiguousHeight() == null) {
+            return;
+        }
+        try {
+            Long latestHeight = blockchainNodeService.getLatestBlockHeight();
+            if (latestHeight == null) {
+                return;
+            }
+            List<Gap> gaps = chainTipService.getGaps(latestHeight, blockBackfillProperties.getMaxBlocksPerRun());
+            if (gaps.isEmpty()) {
+                return;
+            }
+            List<BlockchainBlockHeaderDtoV1> blocks = fetch(pages(gaps));
+            List<WebhookEventDtoV1> events = blocks.stream()
+                    .filter(block -> block.getHeader() != null && block.getHeader().getHeight() != null)
+                    .sorted(Comparator.comparing(block -> block.getHeader().getHeight()))
+                    .<WebhookEventDtoV1>map(block -> new WebhookEventDtoV1.NewBlockEvent(WebhookEventType.NEW_BLOCK,
+                            WebhookDtoV1.TypeEnum.BLOCKCHAIN, block))
+                    .toList();
+            if (!webhookIngestionService.enqueue(events)) {
+                log.warn("Block backfill of {} blocks deferred, NEW_BLOCK lane is full.", events.size());
+                return;
+            }
+            log.info("Backfilled {} missed blocks from height {}.", events.size(), gaps.getFirst().fromHeight());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Block backfill failed.", e);
+        }
+    }
+
+    private List<Gap> pages(List<Gap> gaps) {
+        List<Gap> pages = new ArrayList<>();
+        for (Gap gap : gaps) {
+            for (long from = gap.fromHeight(); from <= gap.toHeight(); from += blockBackfillProperties.getPageSize()) {
+                pages.add(new Gap(from, Math.min(gap.toHeight(), from + blockBackfillProperties.getPageSize() - 1)));
+            }
+        }
+        return pages;
+    }
+
+    private List<BlockchainBlockHeaderDtoV1> fetch(List<Gap> pages) throws InterruptedException, ExecutionException {
+        List<Future<List<BlockchainBlockHeaderDtoV1>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Gap page : pages) {
+                futures.add(executor.submit(() -> {
+                    bucket.asBlocking().consume(1);
+                    return blockchainNodeService.getBlockHeadersByRange(page.fromHeight(), page.toHeight());
+                }));
+            }
+        }
+        List<BlockchainBlockHeaderDtoV1> blocks = new ArrayList<>();
+        for (Future<List<BlockchainBlockHeaderDtoV1>> future : futures) {
+            List<BlockchainBlockHeaderDtoV1> page = future.get();
+            if (page != null) {
+                blocks.addAll(page);
+            }
+        }
+        return blocks;
+    }
+}
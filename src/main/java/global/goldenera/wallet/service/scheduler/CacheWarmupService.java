@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.scheduler;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.properties.CacheWarmupProperties;
+import global.goldenera.wallet.repositories.DeviceRepository;
+import global.goldenera.wallet.repositories.UserAccountRepository;
+import global.goldenera.wallet.repositories.UserAccountRepository.DeviceAddress;
+import global.goldenera.wallet.service.business.WalletBusinessService;
+import io.github.bucket4j.Bucket;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prefetches the first confirmed transfer page of the addresses of recently
+ * active devices into the off-heap store right after startup, so a fresh
+ * instance does not forward every first request to the node.
+ * <p>
+ * Pages are warmed under the key the apps request: one address, the native
+ * token and the app's page size. Balances and pending transfers expire within
+ * seconds, long before the warm-up ends, so they are left to the first request.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class CacheWarmupService {
+
+    /**
+     * Token filter of the apps' transfer list, the native token.
+     */
+    private static final AddressSet NATIVE_TOKEN = AddressSet.of(Address.ZERO);
+
+    CacheWarmupProperties cacheWarmupProperties;
+    DeviceRepository deviceRepository;
+    UserAccountRepository userAccountRepository;
+    WalletBusinessService walletBusinessService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!cacheWarmupProperties.isEnabled()) {
+            return;
+        }
+        try {
+            List<Address> addresses = loadActiveAddresses();
+            if (addresses.isEmpty()) {
+                log.info("Cache warm-up skipped, no active devices found.");
+                return;
+            }
+            warmUpAddresses(addresses);
+        } catch (Exception e) {
+            log.error("Cache warm-up failed.", e);
+        }
+    }
+
+    private void warmUpAddresses(List<Address> addresses) {
+        Instant deadline = Instant.now().plus(cacheWarmupProperties.getTimeout());
+        AtomicInteger warmed = new AtomicInteger();
+        Bucket bucket = Bucket.builder()
+                .addLimit(limit -> limit.capacity(cacheWarmupProperties.getRequestsPerSecond())
+                        .refillGreedy(cacheWarmupProperties.getRequestsPerSecond(), Duration.ofSeconds(1)))
+                .build();
+
+        log.info("Cache warm-up started for {} addresses.", addresses.size());
+        for (List<Address> batch : partition(addresses, cacheWarmupProperties.getBatchSize())) {
+            if (Instant.now().isAfter(deadline)) {
+                log.warn("Cache warm-up timed out after {} of {} addresses.", warmed.get(), addresses.size());
+                return;
+            }
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Address address : batch) {
+                    executor.execute(() -> {
+                        if (warmUpAddress(bucket, address)) {
+                            warmed.incrementAndGet();
+                        }
+                    });
+                }
+            }
+        }
+        log.info("Cache warm-up finished, {} of {} addresses warmed.", warmed.get(), addresses.size());
+    }
+
+    private boolean warmUpAddress(Bucket bucket, Address address) {
+        try {
+            bucket.asBlocking().consume(1);
+            walletBusinessService.warmUpConfirmedTransfers(AddressSet.of(address), NATIVE_TOKEN,
+                    cacheWarmupProperties.getTransferPageSize());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Cache warm-up of address {} failed: {}", address, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the distinct tracked addresses of recently active devices, those of
+     * the most recently seen devices first.
+     */
+    private List<Address> loadActiveAddresses() {
+        Instant threshold = Instant.now().minus(cacheWarmupProperties.getActiveWithin());
+        List<UUID> deviceIds = deviceRepository.findIdsByLastSeenAtAfter(threshold,
+                PageRequest.of(0, cacheWarmupProperties.getMaxDevices()));
+
+        Set<Address> addresses = new LinkedHashSet<>();
+        for (List<UUID> batch : partition(deviceIds, cacheWarmupProperties.getBatchSize())) {
+            for (DeviceAddress deviceAddress : userAccountRepository.findDeviceAddressesByDeviceIds(batch)) {
+                addresses.add(deviceAddress.getAddress());
+            }
+        }
+        return List.copyOf(addresses);
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            partitions.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return partitions;
+    }
+}
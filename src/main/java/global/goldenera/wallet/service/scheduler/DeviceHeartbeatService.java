@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.scheduler;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.properties.DeviceProperties;
+import global.goldenera.wallet.service.core.DeviceCoreService;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code Device.lastSeenAt} current without a write per device contact.
+ * <p>
+ * Heartbeats only update an in-memory map keyed by client identifier. The map
+ * is flushed periodically in batched updates, so the database sees one row per
+ * active device and interval however often the device calls in.
+ */
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Slf4j
+public class DeviceHeartbeatService {
+
+    DeviceCoreService deviceCoreService;
+    DeviceProperties deviceProperties;
+
+    /**
+     * Latest contact per client identifier, not yet written.
+     */
+    Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+
+    public void heartbeat(UUID clientIdentifier) {
+        Instant now = Instant.now();
+        if (pending.size() >= deviceProperties.getHeartbeatMaxPending() && !pending.containsKey(clientIdentifier)) {
+            // Dropping a heartbeat only delays lastSeenAt, the next one after the flush counts
+            return;
+        }
+        pending.merge(clientIdentifier, now, (current, seen) -> seen.isAfter(current) ? seen : current);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${ge.device.heartbeat-flush-interval-ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int batchSize = deviceProperties.getHeartbeatBatchSize();
+        List<Map.Entry<UUID, Instant>> batch = new ArrayList<>(batchSize);
+        int written = 0;
+        for (Map.Entry<UUID, Instant> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                written += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += write(batch);
+        }
+        log.debug("Flushed heartbeats, {} devices updated", written);
+    }
+
+    private int write(List<Map.Entry<UUID, Instant>> batch) {
+        UUID[] clientIdentifiers = new UUID[batch.size()];
+        Instant[] seenAts = new Instant[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            clientIdentifiers[i] = batch.get(i).getKey();
+            seenAts[i] = batch.get(i).getValue();
+        }
+        try {
+            int updated = deviceCoreService.updateLastSeenAt(clientIdentifiers, seenAts);
+            // A heartbeat that arrived during the write stays for the next flush
+            batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+            return updated;
+        } catch (Exception e) {
+            log.warn("Failed to flush {} heartbeats, retrying next time: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+}
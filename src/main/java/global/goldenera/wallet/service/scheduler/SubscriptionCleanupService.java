@@ -26,58 +26,143 @@ package global.goldenera.wallet.service.scheduler;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import global.goldenera.wallet.entities.TrackedAddress;
+import global.goldenera.wallet.properties.DeviceProperties;
 import global.goldenera.wallet.repositories.DeviceRepository;
+import global.goldenera.wallet.repositories.DeviceRepository.DeviceLastSeen;
 import global.goldenera.wallet.repositories.TrackedAddressRepository;
 import global.goldenera.wallet.repositories.UserAccountRepository;
-import lombok.AllArgsConstructor;
+import global.goldenera.wallet.service.push.DeviceRoutingIndex;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Deletes devices not seen for {@code ge.device.zombie-after}, their user
+ * accounts and the tracked addresses nobody tracks anymore.
+ * <p>
+ * Devices are walked in (last_seen_at, id) order in chunks, each chunk in its
+ * own transaction with a pause in between. The position after the last
+ * committed chunk is kept as a checkpoint: a run that hits its time limit or
+ * fails is continued by the next run with the same threshold.
+ */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 @Slf4j
 public class SubscriptionCleanupService {
 
+    public record Checkpoint(Instant threshold, Instant lastSeenAt, UUID deviceId, long deletedDevices,
+            long deletedAddresses) {
+    }
+
+    private record ChunkResult(int deletedDevices, int deletedAddresses, DeviceLastSeen last) {
+    }
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
     DeviceRepository deviceRepository;
     UserAccountRepository userAccountRepository;
     TrackedAddressRepository trackedAddressRepository;
+    SubscriptionSyncService subscriptionSyncService;
+    DeviceRoutingIndex deviceRoutingIndex;
+    DeviceProperties deviceProperties;
+    TransactionTemplate transactionTemplate;
+
+    /**
+     * Progress of an unfinished run, null when the last run completed.
+     */
+    @NonFinal
+    volatile Checkpoint checkpoint;
 
     @Scheduled(cron = "0 0 3 * * *")
-    @Transactional(rollbackFor = Exception.class)
     public void cleanupZombies() {
-        log.info("Starting zombie device cleanup task...");
-
-        Instant threshold = Instant.now().minus(180, ChronoUnit.DAYS);
-        List<UUID> zombieDeviceIds = deviceRepository.findIdsByLastSeenAtBefore(threshold);
+        Checkpoint current = checkpoint;
+        if (current == null) {
+            log.info("Starting zombie device cleanup task...");
+            current = new Checkpoint(Instant.now().minus(deviceProperties.getZombieAfter()), Instant.EPOCH,
+                    MIN_UUID, 0, 0);
+        } else {
+            log.info("Resuming zombie device cleanup task after {} deleted devices...", current.deletedDevices());
+        }
 
-        if (zombieDeviceIds.isEmpty()) {
-            log.info("No zombie devices found. Cleanup finished.");
+        Instant deadline = Instant.now().plus(deviceProperties.getCleanupMaxRunTime());
+        try {
+            while (true) {
+                ChunkResult chunk = deleteChunk(current);
+                if (chunk == null) {
+                    break;
+                }
+                current = new Checkpoint(current.threshold(), chunk.last().getLastSeenAt(), chunk.last().getId(),
+                        current.deletedDevices() + chunk.deletedDevices(),
+                        current.deletedAddresses() + chunk.deletedAddresses());
+                checkpoint = current;
+                log.debug("Zombie cleanup checkpoint: {}", current);
+                if (Instant.now().isAfter(deadline)) {
+                    log.info("Zombie cleanup paused after {} deleted devices, resuming next run.",
+                            current.deletedDevices());
+                    return;
+                }
+                Thread.sleep(deviceProperties.getCleanupChunkPause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Zombie cleanup interrupted after {} deleted devices.", current.deletedDevices());
+            return;
+        } catch (Exception e) {
+            log.error("Zombie cleanup failed after {} deleted devices, resuming next run.",
+                    current.deletedDevices(), e);
             return;
         }
 
-        log.info("Found {} zombie devices. Analyzing impacted addresses...", zombieDeviceIds.size());
-        Set<Long> impactedAddressIds = userAccountRepository.findTrackedAddressIdsByDeviceIds(zombieDeviceIds);
+        checkpoint = null;
+        log.info("Zombie cleanup finished. Deleted {} devices and {} orphaned tracked addresses.",
+                current.deletedDevices(), current.deletedAddresses());
+    }
 
-        deviceRepository.deleteAllByIdInBatch(zombieDeviceIds);
-        deviceRepository.flush();
-        log.info("Deleted {} zombie devices and their user accounts.", zombieDeviceIds.size());
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
 
-        if (impactedAddressIds.isEmpty()) {
-            log.info("No impacted addresses. Cleanup finished.");
-            return;
-        }
+    /**
+     * Deletes the next chunk of zombie devices after the checkpoint in one
+     * transaction, null when there are none left.
+     */
+    private ChunkResult deleteChunk(Checkpoint from) {
+        return transactionTemplate.execute(status -> {
+            List<DeviceLastSeen> devices = deviceRepository.findLastSeenBefore(from.threshold(), from.lastSeenAt(),
+                    from.deviceId(), PageRequest.ofSize(deviceProperties.getCleanupChunkSize()));
+            if (devices.isEmpty()) {
+                return null;
+            }
+            List<UUID> zombieDeviceIds = devices.stream().map(DeviceLastSeen::getId).toList();
+            Set<Long> impactedAddressIds = userAccountRepository.findTrackedAddressIdsByDeviceIds(zombieDeviceIds);
+
+            deviceRepository.deleteAllByIdInBatch(zombieDeviceIds);
+            deviceRepository.flush();
+            deviceRoutingIndex.onDevicesDeleted(zombieDeviceIds);
 
-        int deletedOrphans = trackedAddressRepository.deleteOrphanedByIds(impactedAddressIds);
-        log.info("Deleted {} orphaned tracked addresses.", deletedOrphans);
+            int deletedOrphans = 0;
+            if (!impactedAddressIds.isEmpty()) {
+                List<TrackedAddress> orphaned = trackedAddressRepository.findOrphanedByIds(impactedAddressIds);
+                if (!orphaned.isEmpty()) {
+                    deletedOrphans = trackedAddressRepository
+                            .deleteOrphanedByIds(orphaned.stream().map(TrackedAddress::getId).toList());
+                    subscriptionSyncService
+                            .onAddressesUntracked(orphaned.stream().map(TrackedAddress::getAddress).toList());
+                }
+            }
+            return new ChunkResult(zombieDeviceIds.size(), deletedOrphans, devices.getLast());
+        });
     }
-}
\ No newline at end of file
+}
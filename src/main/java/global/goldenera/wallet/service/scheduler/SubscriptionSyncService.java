@@ -25,19 +25,48 @@ package global.goldenera.wallet.service.scheduler;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import global.goldenera.cryptoj.datatypes.Address;
 import global.goldenera.wallet.client.node.model.v1.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.WebhookEventDtoV1Page;
+import global.goldenera.wallet.properties.SubscriptionSyncProperties;
+import global.goldenera.wallet.repositories.TrackedAddressRepository;
+import global.goldenera.wallet.repositories.TrackedAddressRepository.TrackedAddressDigest;
+import global.goldenera.wallet.repositories.TrackedAddressRepository.TrackedAddressRow;
 import global.goldenera.wallet.service.node.WebhookNodeService;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Keeps the node-side webhook subscriptions in line with the wallet: NEW_BLOCK
+ * always, ADDRESS_ACTIVITY for every tracked address.
+ * <p>
+ * Address changes are reported as they happen and sent to the node in batches,
+ * so the node traffic follows the churn. The hourly reconciliation compares a
+ * digest of the tracked addresses, computed by the database, with the digest
+ * of the subscriptions sent. Only when they differ, e.g. after changes lost
+ * while the wallet was down, are the subscriptions registered on the node read
+ * and diffed with the tracked addresses.
+ */
 @Service
 @AllArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
@@ -45,6 +74,30 @@ import lombok.extern.slf4j.Slf4j;
 public class SubscriptionSyncService {
 
     WebhookNodeService webhookNodeService;
+    TrackedAddressRepository trackedAddressRepository;
+    SubscriptionSyncProperties subscriptionSyncProperties;
+
+    /**
+     * Addresses subscribed on the node, as of the last reconciliation and the
+     * changes sent since.
+     */
+    Set<Address> subscribed = ConcurrentHashMap.newKeySet();
+    /**
+     * Digest of {@link #subscribed}, the XOR of the address fingerprints. Kept
+     * in step with the set, compared with
+     * {@link TrackedAddressRepository#getDigest()}.
+     */
+    AtomicLong subscribedDigest = new AtomicLong();
+    /**
+     * Changes not yet sent to the node, guarded by this. The lock is only held
+     * to update or take the sets, never across node calls.
+     */
+    Set<Address> pendingAdditions = new HashSet<>();
+    Set<Address> pendingRemovals = new HashSet<>();
+    /**
+     * Serializes flushes and reconciliations.
+     */
+    ReentrantLock syncLock = new ReentrantLock();
 
     @EventListener(ApplicationReadyEvent.class)
     @Scheduled(fixedDelay = 3600000)
@@ -58,5 +111,208 @@ public class SubscriptionSyncService {
         } catch (Exception e) {
             log.error("Failed to subscribe to NEW_BLOCK events.", e);
         }
+        try {
+            reconcileAddressSubscriptions();
+        } catch (Exception e) {
+            log.error("Failed to reconcile ADDRESS_ACTIVITY subscriptions.", e);
+        }
+    }
+
+    /**
+     * Reports newly tracked addresses. Inside a transaction they are queued only
+     * once it commits.
+     */
+    public void onAddressesTracked(Collection<Address> addresses) {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingRemovals.removeAll(addresses);
+                pendingAdditions.addAll(addresses);
+            }
+        });
+    }
+
+    /**
+     * Reports addresses that are no longer tracked by any device. Inside a
+     * transaction they are queued only once it commits.
+     */
+    public void onAddressesUntracked(Collection<Address> addresses) {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingAdditions.removeAll(addresses);
+                pendingRemovals.addAll(addresses);
+            }
+        });
+    }
+
+    /**
+     * True if ADDRESS_ACTIVITY webhooks arrive for all addresses.
+     */
+    public boolean isSubscribed(Collection<Address> addresses) {
+        return subscribed.containsAll(addresses);
+    }
+
+    @Scheduled(fixedDelayString = "${ge.webhook.subscription.flush-interval-ms}")
+    public void flushPendingChanges() {
+        syncLock.lock();
+        try {
+            List<Address> additions;
+            List<Address> removals;
+            synchronized (this) {
+                additions = pendingAdditions.stream().filter(a -> !subscribed.contains(a)).toList();
+                removals = pendingRemovals.stream().filter(subscribed::contains).toList();
+                pendingAdditions.clear();
+                pendingRemovals.clear();
+            }
+            if (additions.isEmpty() && removals.isEmpty()) {
+                return;
+            }
+            apply(additions, removals);
+            log.debug("Flushed {} subscribed and {} unsubscribed addresses.", additions.size(), removals.size());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void reconcileAddressSubscriptions() {
+        syncLock.lock();
+        try {
+            TrackedAddressDigest digest = trackedAddressRepository.getDigest();
+            if (digest.getCount() == subscribed.size() && digest.getFingerprint() == subscribedDigest.get()) {
+                log.debug("ADDRESS_ACTIVITY subscriptions in sync, {} addresses.", digest.getCount());
+                return;
+            }
+            Set<Address> onNode = loadNodeSubscriptions();
+            Set<Address> tracked = loadTrackedAddresses();
+            removeSubscribed(subscribed.stream().filter(a -> !onNode.contains(a)).toList());
+            addSubscribed(onNode);
+
+            List<Address> additions = tracked.stream().filter(a -> !onNode.contains(a)).toList();
+            List<Address> removals = onNode.stream().filter(a -> !tracked.contains(a)).toList();
+            if (additions.isEmpty() && removals.isEmpty()) {
+                log.debug("ADDRESS_ACTIVITY subscriptions in sync, {} addresses.", tracked.size());
+                return;
+            }
+            apply(additions, removals);
+            log.info("Reconciled ADDRESS_ACTIVITY subscriptions: {} subscribed, {} unsubscribed.", additions.size(),
+                    removals.size());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private Set<Address> loadNodeSubscriptions() {
+        int pageSize = subscriptionSyncProperties.getBatchSize();
+        Set<Address> addresses = new HashSet<>();
+        int pageNumber = 0;
+        WebhookEventDtoV1Page page;
+        do {
+            page = webhookNodeService.getEventPage(pageNumber, pageSize, null,
+                    WebhookEventDtoV1.TypeEnum.ADDRESS_ACTIVITY.getValue(), null, null);
+            if (page == null || page.getList() == null) {
+                break;
+            }
+            for (WebhookEventDtoV1 event : page.getList()) {
+                if (event.getAddressFilter() != null) {
+                    addresses.add(Address.fromHexString(event.getAddressFilter()));
+                }
+            }
+            pageNumber++;
+        } while (page.getTotalPages() != null && pageNumber < page.getTotalPages());
+        return addresses;
+    }
+
+    private Set<Address> loadTrackedAddresses() {
+        int pageSize = subscriptionSyncProperties.getBatchSize();
+        Set<Address> addresses = new HashSet<>();
+        long afterId = 0;
+        List<TrackedAddressRow> rows;
+        do {
+            rows = trackedAddressRepository.findAddressesAfter(afterId, PageRequest.ofSize(pageSize));
+            for (TrackedAddressRow row : rows) {
+                addresses.add(row.getAddress());
+            }
+            if (!rows.isEmpty()) {
+                afterId = rows.getLast().getId();
+            }
+        } while (rows.size() == pageSize);
+        return addresses;
+    }
+
+    /**
+     * Sends the changes in batches. Batches that fail are queued again for the
+     * next flush.
+     */
+    private void apply(List<Address> additions, List<Address> removals) {
+        sendInBatches(removals, batch -> {
+            webhookNodeService.unsubscribeFromEvents(toEvents(batch));
+            removeSubscribed(batch);
+        }, pendingRemovals);
+        sendInBatches(additions, batch -> {
+            webhookNodeService.subscribeToEvents(toEvents(batch));
+            addSubscribed(batch);
+        }, pendingAdditions);
+    }
+
+    private void sendInBatches(List<Address> addresses, Consumer<List<Address>> send, Set<Address> retry) {
+        int batchSize = subscriptionSyncProperties.getBatchSize();
+        for (int i = 0; i < addresses.size(); i += batchSize) {
+            List<Address> batch = addresses.subList(i, Math.min(i + batchSize, addresses.size()));
+            try {
+                send.accept(batch);
+            } catch (Exception e) {
+                log.warn("Failed to update {} ADDRESS_ACTIVITY subscriptions, retrying later: {}", batch.size(),
+                        e.getMessage());
+                synchronized (this) {
+                    retry.addAll(batch);
+                }
+            }
+        }
+    }
+
+    private void addSubscribed(Collection<Address> addresses) {
+        for (Address address : addresses) {
+            if (subscribed.add(address)) {
+                subscribedDigest.getAndUpdate(d -> d ^ fingerprint(address));
+            }
+        }
+    }
+
+    private void removeSubscribed(Collection<Address> addresses) {
+        for (Address address : addresses) {
+            if (subscribed.remove(address)) {
+                subscribedDigest.getAndUpdate(d -> d ^ fingerprint(address));
+            }
+        }
+    }
+
+    /**
+     * First eight address bytes, big-endian, as computed by the digest query.
+     * Addresses are hash outputs, so these bits are uniform already.
+     */
+    private static long fingerprint(Address address) {
+        return ByteBuffer.wrap(address.toArrayUnsafe(), 0, Long.BYTES).getLong();
+    }
+
+    private static List<WebhookEventDtoV1> toEvents(List<Address> addresses) {
+        List<WebhookEventDtoV1> events = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            events.add(new WebhookEventDtoV1()
+                    .type(WebhookEventDtoV1.TypeEnum.ADDRESS_ACTIVITY)
+                    .addressFilter(address.toChecksumAddress()));
+        }
+        return events;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
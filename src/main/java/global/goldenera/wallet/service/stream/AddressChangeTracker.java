@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1.UpdateType;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.properties.StreamProperties;
+import global.goldenera.wallet.service.system.ChainTipService;
+import jakarta.annotation.PostConstruct;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Remembers per address when it last changed: the version of its pending set,
+ * taken from one global counter, and the block height of its last confirmed
+ * change. Clients compare both against what they saw last.
+ * <p>
+ * Every address also keeps a short log of pending additions and removals, so
+ * a client can be told which pending entries went away since its version.
+ * What the tracker cannot answer, because it started after the client's
+ * checkpoint or evicted an address, is reported through {@link #covers}.
+ */
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class AddressChangeTracker {
+
+    private static final int PENDING_LOG_SIZE = 32;
+
+    public record PendingChange(long version, Hash txHash, boolean removed) {
+    }
+
+    /**
+     * @param pendingLog
+     *            Recent pending changes, oldest first
+     * @param pendingLogFloor
+     *            Versions up to this one were dropped from the log
+     */
+    public record Change(long pendingVersion, long changedAtHeight, List<PendingChange> pendingLog,
+            long pendingLogFloor) {
+
+        static final Change NONE = new Change(0, -1, List.of(), 0);
+
+        Change merge(Change other) {
+            List<PendingChange> log = new ArrayList<>(pendingLog.size() + other.pendingLog.size());
+            log.addAll(pendingLog);
+            log.addAll(other.pendingLog);
+            long floor = Math.max(pendingLogFloor, other.pendingLogFloor);
+            while (log.size() > PENDING_LOG_SIZE) {
+                floor = Math.max(floor, log.removeFirst().version());
+            }
+            return new Change(Math.max(pendingVersion, other.pendingVersion),
+                    Math.max(changedAtHeight, other.changedAtHeight), List.copyOf(log), floor);
+        }
+    }
+
+    WalletUpdateService walletUpdateService;
+    ChainTipService chainTipService;
+    Cache<Address, Change> changes;
+    AtomicLong pendingVersions = new AtomicLong();
+    /**
+     * Height of the first block seen, changes before it are unknown.
+     */
+    AtomicLong trackingSinceHeight = new AtomicLong(Long.MAX_VALUE);
+    AtomicLong evictedHeight = new AtomicLong(-1);
+    AtomicLong evictedPendingVersion = new AtomicLong();
+
+    public AddressChangeTracker(WalletUpdateService walletUpdateService, ChainTipService chainTipService,
+            StreamProperties streamProperties) {
+        this.walletUpdateService = walletUpdateService;
+        this.chainTipService = chainTipService;
+        this.changes = Caffeine.newBuilder()
+                .maximumSize(streamProperties.getTrackedChanges())
+                .<Address, Change>removalListener((address, change, cause) -> {
+                    if (cause == RemovalCause.SIZE && change != null) {
+                        evictedHeight.accumulateAndGet(change.changedAtHeight(), Math::max);
+                        evictedPendingVersion.accumulateAndGet(change.pendingVersion(), Math::max);
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        walletUpdateService.addGlobalListener(this::onUpdate);
+    }
+
+    /**
+     * Latest change over all given addresses, {@link Change#NONE} components
+     * where nothing is known. The pending log is not merged.
+     */
+    public Change getChange(AddressSet addresses) {
+        long pendingVersion = 0;
+        long changedAtHeight = -1;
+        for (Address address : addresses) {
+            Change change = changes.getIfPresent(address);
+            if (change != null) {
+                pendingVersion = Math.max(pendingVersion, change.pendingVersion());
+                changedAtHeight = Math.max(changedAtHeight, change.changedAtHeight());
+            }
+        }
+        return new Change(pendingVersion, changedAtHeight, List.of(), 0);
+    }
+
+    /**
+     * Changes of those addresses that changed at all.
+     */
+    public Map<Address, Change> getChanges(AddressSet addresses) {
+        Map<Address, Change> result = new LinkedHashMap<>();
+        for (Address address : addresses) {
+            Change change = changes.getIfPresent(address);
+            if (change != null) {
+                result.put(address, change);
+            }
+        }
+        return result;
+    }
+
+    public boolean hasChangedSince(AddressSet addresses, Long sinceHeight, Long sincePendingVersion) {
+        Change change = getChange(addresses);
+        return (sinceHeight != null && change.changedAtHeight() > sinceHeight)
+                || (sincePendingVersion != null && change.pendingVersion() > sincePendingVersion);
+    }
+
+    /**
+     * Whether every change after the checkpoint is known. False if the tracker
+     * started later, was restarted since or evicted a newer change.
+     */
+    public boolean covers(long sinceHeight, long sincePendingVersion) {
+        return sinceHeight >= trackingSinceHeight.get()
+                && sincePendingVersion <= pendingVersions.get()
+                && sinceHeight >= evictedHeight.get()
+                && sincePendingVersion >= evictedPendingVersion.get();
+    }
+
+    /**
+     * Current value of the global pending version counter.
+     */
+    public long getPendingVersion() {
+        return pendingVersions.get();
+    }
+
+    private void onUpdate(WalletUpdateDtoV1 update) {
+        if (update.type() == UpdateType.NEW_BLOCK && update.blockHeight() != null) {
+            trackingSinceHeight.accumulateAndGet(update.blockHeight(), Math::min);
+        }
+        if (update.address() == null) {
+            return;
+        }
+        Change change = switch (update.type()) {
+            case NEW_PENDING -> pendingChange(update, false, -1);
+            case DROPPED -> pendingChange(update, true, -1);
+            case CONFIRMED -> pendingChange(update, true, heightOf(update));
+            case BALANCE_CHANGED -> new Change(0, heightOf(update), List.of(), 0);
+            default -> null;
+        };
+        if (change != null) {
+            changes.asMap().merge(update.address(), change, Change::merge);
+        }
+    }
+
+    private Change pendingChange(WalletUpdateDtoV1 update, boolean removed, long changedAtHeight) {
+        long version = pendingVersions.incrementAndGet();
+        List<PendingChange> log = update.txHash() != null
+                ? List.of(new PendingChange(version, update.txHash(), removed))
+                : List.of();
+        return new Change(version, changedAtHeight, log, 0);
+    }
+
+    /**
+     * Reverted transfers carry no height, they count as changed at the tip.
+     */
+    private long heightOf(WalletUpdateDtoV1 update) {
+        if (update.blockHeight() != null) {
+            return update.blockHeight();
+        }
+        ChainTipService.Tip tip = chainTipService.getTip();
+        return tip != null ? tip.height() : -1;
+    }
+}
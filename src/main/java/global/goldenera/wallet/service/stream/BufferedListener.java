@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1.UpdateType;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Listener that decouples a client connection from the event bus thread. The
+ * bus only offers to a bounded queue; the connection's own thread takes the
+ * updates. When the queue overflows, the buffered updates are replaced by a
+ * single RESYNC.
+ */
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class BufferedListener implements WalletUpdateService.Listener {
+
+    private static final WalletUpdateDtoV1 RESYNC = new WalletUpdateDtoV1(UpdateType.RESYNC, null, null, null, null,
+            null);
+
+    BlockingQueue<WalletUpdateDtoV1> queue;
+    AtomicBoolean overflowed = new AtomicBoolean();
+
+    public BufferedListener(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void onUpdate(WalletUpdateDtoV1 update) {
+        if (!queue.offer(update)) {
+            overflowed.set(true);
+            queue.clear();
+        }
+    }
+
+    /**
+     * Waits for the next update.
+     *
+     * @return the update, or {@code null} if none arrived within the timeout
+     */
+    public WalletUpdateDtoV1 poll(Duration timeout) throws InterruptedException {
+        if (overflowed.getAndSet(false)) {
+            queue.clear();
+            return RESYNC;
+        }
+        return queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
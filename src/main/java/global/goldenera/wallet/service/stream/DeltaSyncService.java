@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.UnifiedTransferDtoV1.TransferStatus;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletBalanceDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletDeltaDtoV1;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.service.scheduler.SubscriptionSyncService;
+import global.goldenera.wallet.service.business.WalletBusinessService;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.stream.AddressChangeTracker.Change;
+import global.goldenera.wallet.service.stream.AddressChangeTracker.PendingChange;
+import global.goldenera.wallet.service.system.ChainTipService;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Answers "what changed since my checkpoint" from the {@link AddressChangeTracker}.
+ * Only addresses that changed after the checkpoint are loaded from the node,
+ * an unchanged wallet is answered from memory. Addresses the node does not
+ * send webhooks for have no reliable change history, so they always get the
+ * full answer.
+ */
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class DeltaSyncService {
+
+    AddressChangeTracker addressChangeTracker;
+    WalletBusinessService walletBusinessService;
+    ChainTipService chainTipService;
+    BlockchainNodeService blockchainNodeService;
+    SubscriptionSyncService subscriptionSyncService;
+
+    public WalletDeltaDtoV1 sync(AddressSet addresses, AddressSet tokenAddresses, Long sinceHeight,
+            Long sincePendingVersion, int pageSize) {
+        // Read before loading, so a change during the load is seen next time
+        long pendingVersion = addressChangeTracker.getPendingVersion();
+        Long height = currentHeight();
+        if (sinceHeight == null || sincePendingVersion == null
+                || !addressChangeTracker.covers(sinceHeight, sincePendingVersion)
+                || !subscriptionSyncService.isSubscribed(addresses.addresses())) {
+            return full(addresses, tokenAddresses, height, pendingVersion, pageSize);
+        }
+
+        Set<Address> balanceChanged = new HashSet<>();
+        Set<Address> transfersChanged = new HashSet<>();
+        Set<Hash> addedPending = new HashSet<>();
+        Set<Hash> removedPending = new HashSet<>();
+        for (Map.Entry<Address, Change> entry : addressChangeTracker.getChanges(addresses).entrySet()) {
+            Change change = entry.getValue();
+            if (change.pendingLogFloor() > sincePendingVersion) {
+                return full(addresses, tokenAddresses, height, pendingVersion, pageSize);
+            }
+            if (change.changedAtHeight() > sinceHeight) {
+                balanceChanged.add(entry.getKey());
+                transfersChanged.add(entry.getKey());
+            }
+            if (change.pendingVersion() > sincePendingVersion) {
+                // Pending transfers move the pending balance and nonce
+                balanceChanged.add(entry.getKey());
+                transfersChanged.add(entry.getKey());
+            }
+            for (PendingChange pending : change.pendingLog()) {
+                if (pending.version() <= sincePendingVersion) {
+                    continue;
+                }
+                if (pending.removed()) {
+                    addedPending.remove(pending.txHash());
+                    removedPending.add(pending.txHash());
+                } else {
+                    removedPending.remove(pending.txHash());
+                    addedPending.add(pending.txHash());
+                }
+            }
+        }
+
+        List<WalletBalanceDtoV1> balances = balanceChanged.isEmpty() ? List.of()
+                : walletBusinessService.getBalances(AddressSet.of(balanceChanged), tokenAddresses);
+        List<UnifiedTransferDtoV1> transfers = new ArrayList<>();
+        if (!transfersChanged.isEmpty()) {
+            List<UnifiedTransferDtoV1> page = walletBusinessService
+                    .getTransfers(AddressSet.of(transfersChanged), tokenAddresses, 0, pageSize, null).content();
+            boolean lastIsNew = false;
+            for (UnifiedTransferDtoV1 transfer : page) {
+                boolean newlyConfirmed = transfer.status() == TransferStatus.CONFIRMED
+                        && transfer.blockHeight() != null && transfer.blockHeight() > sinceHeight;
+                boolean newlyPending = transfer.status() == TransferStatus.PENDING
+                        && addedPending.contains(transfer.txHash());
+                lastIsNew = newlyConfirmed || newlyPending;
+                if (lastIsNew) {
+                    transfers.add(transfer);
+                }
+            }
+            // Newest first, a full page ending in a new transfer may have cut off more
+            if (page.size() >= pageSize && lastIsNew) {
+                return full(addresses, tokenAddresses, height, pendingVersion, pageSize);
+            }
+        }
+        return new WalletDeltaDtoV1(false, height, pendingVersion, balances, transfers, removedPending);
+    }
+
+    private WalletDeltaDtoV1 full(AddressSet addresses, AddressSet tokenAddresses, Long height,
+            long pendingVersion, int pageSize) {
+        return new WalletDeltaDtoV1(true, height, pendingVersion,
+                walletBusinessService.getBalances(addresses, tokenAddresses),
+                walletBusinessService.getTransfers(addresses, tokenAddresses, 0, pageSize, null).content(),
+                Set.of());
+    }
+
+    private Long currentHeight() {
+        ChainTipService.Tip tip = chainTipService.getTip();
+        return tip != null ? Long.valueOf(tip.height()) : blockchainNodeService.getLatestBlockHeight();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletChangeDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1.UpdateType;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.exceptions.GEValidationException;
+import global.goldenera.wallet.properties.StreamProperties;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.system.ChainTipService;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Long-poll requests: the request thread, a virtual thread, parks until one of
+ * the addresses changed after the client's height or pending version, or the
+ * wait elapses, and then returns the current data.
+ */
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class LongPollService {
+
+    StreamProperties streamProperties;
+    WalletUpdateService walletUpdateService;
+    AddressChangeTracker addressChangeTracker;
+    ChainTipService chainTipService;
+    BlockchainNodeService blockchainNodeService;
+
+    /**
+     * Waits for a change of the addresses, then loads the data. Without
+     * {@code sinceHeight} and {@code sincePendingVersion} it returns at once.
+     */
+    public <T> WalletChangeDtoV1<T> await(AddressSet addresses, Long sinceHeight, Long sincePendingVersion,
+            Duration wait, Supplier<T> loader) {
+        if (addresses.isEmpty() || addresses.size() > streamProperties.getMaxAddressesPerConnection()) {
+            throw new GEValidationException("A long-poll request watches between 1 and "
+                    + streamProperties.getMaxAddressesPerConnection() + " addresses");
+        }
+        // Read before waiting, so a change during the load is seen next time
+        long pendingVersion = addressChangeTracker.getPendingVersion();
+        Long height = currentHeight();
+        boolean changed = sinceHeight == null && sincePendingVersion == null
+                || awaitChange(addresses, sinceHeight, sincePendingVersion, wait);
+        if (changed) {
+            pendingVersion = addressChangeTracker.getPendingVersion();
+            height = currentHeight();
+        }
+        return new WalletChangeDtoV1<>(changed, height, pendingVersion, loader.get());
+    }
+
+    private boolean awaitChange(AddressSet addresses, Long sinceHeight, Long sincePendingVersion, Duration wait) {
+        Duration maxWait = streamProperties.getLongPollMaxWait();
+        long deadline = System.nanoTime() + (wait == null || wait.compareTo(maxWait) > 0 ? maxWait : wait).toNanos();
+        BufferedListener listener = new BufferedListener(streamProperties.getQueueCapacity());
+        walletUpdateService.addListener(listener, addresses.addresses());
+        try {
+            while (!addressChangeTracker.hasChangedSince(addresses, sinceHeight, sincePendingVersion)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                WalletUpdateDtoV1 update = listener.poll(Duration.ofNanos(remaining));
+                if (update != null && update.type() == UpdateType.RESYNC) {
+                    return true;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            walletUpdateService.removeListener(listener, addresses.addresses());
+        }
+    }
+
+    private Long currentHeight() {
+        ChainTipService.Tip tip = chainTipService.getTip();
+        return tip != null ? Long.valueOf(tip.height()) : blockchainNodeService.getLatestBlockHeight();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.domain.AddressSet;
+import global.goldenera.wallet.exceptions.GEValidationException;
+import global.goldenera.wallet.properties.StreamProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-sent event streams of wallet updates. Every stream has a virtual
+ * thread writing its buffered updates, idle streams get a heartbeat comment.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class SseStreamService {
+
+    StreamProperties streamProperties;
+    WalletUpdateService walletUpdateService;
+    AtomicInteger connections = new AtomicInteger();
+
+    public SseStreamService(StreamProperties streamProperties, WalletUpdateService walletUpdateService,
+            MeterRegistry meterRegistry) {
+        this.streamProperties = streamProperties;
+        this.walletUpdateService = walletUpdateService;
+        Gauge.builder("ge.stream.connections", connections, AtomicInteger::get)
+                .description("Open push connections")
+                .tag("transport", "sse")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter open(AddressSet addresses) {
+        if (addresses.isEmpty() || addresses.size() > streamProperties.getMaxAddressesPerConnection()) {
+            throw new GEValidationException("A stream watches between 1 and "
+                    + streamProperties.getMaxAddressesPerConnection() + " addresses");
+        }
+        SseEmitter emitter = new SseEmitter(streamProperties.getMaxConnectionAge().toMillis());
+        BufferedListener listener = new BufferedListener(streamProperties.getQueueCapacity());
+        walletUpdateService.addListener(listener, addresses.addresses());
+        connections.incrementAndGet();
+
+        Thread writer = Thread.ofVirtual().name("sse-stream").start(() -> write(emitter, listener));
+        Runnable close = () -> {
+            if (writer.isAlive()) {
+                writer.interrupt();
+            }
+            walletUpdateService.removeListener(listener, addresses.addresses());
+        };
+        emitter.onCompletion(() -> {
+            close.run();
+            connections.decrementAndGet();
+        });
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> close.run());
+        return emitter;
+    }
+
+    private void write(SseEmitter emitter, BufferedListener listener) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WalletUpdateDtoV1 update = listener.poll(streamProperties.getHeartbeatInterval());
+                if (update == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .name(update.type().name())
+                            .data(update, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Wallet update stream closed: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+import static org.web3j.crypto.Hash.sha3;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.TxStatusDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.TxStatusDtoV1.TxStatus;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.TxDtoV1;
+import global.goldenera.wallet.exceptions.GENotFoundException;
+import global.goldenera.wallet.exceptions.GEValidationException;
+import global.goldenera.wallet.properties.TxStatusProperties;
+import global.goldenera.wallet.service.node.BlockchainNodeService;
+import global.goldenera.wallet.service.node.ExplorerNodeService;
+import global.goldenera.wallet.service.system.ChainTipService;
+import global.goldenera.wallet.service.webhook.WebhookEventBus;
+import jakarta.annotation.PostConstruct;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Status of transactions submitted through the wallet, kept up to date from
+ * ADDRESS_ACTIVITY webhooks.
+ * <p>
+ * Reads are served from memory. Only a hash that is not known, or that stayed
+ * pending without webhook update for {@code fallbackAfter}, is checked with the
+ * node's confirmation count.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class TxStatusTracker {
+
+    private record Entry(TxStatus status, Long blockHeight, Hash blockHash, Instant checkedAt) {
+    }
+
+    TxStatusProperties txStatusProperties;
+    WebhookEventBus webhookEventBus;
+    ExplorerNodeService explorerNodeService;
+    BlockchainNodeService blockchainNodeService;
+    ChainTipService chainTipService;
+    Cache<Hash, Entry> entries;
+
+    public TxStatusTracker(TxStatusProperties txStatusProperties, WebhookEventBus webhookEventBus,
+            ExplorerNodeService explorerNodeService, BlockchainNodeService blockchainNodeService,
+            ChainTipService chainTipService) {
+        this.txStatusProperties = txStatusProperties;
+        this.webhookEventBus = webhookEventBus;
+        this.explorerNodeService = explorerNodeService;
+        this.blockchainNodeService = blockchainNodeService;
+        this.chainTipService = chainTipService;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(txStatusProperties.getMaxEntries())
+                .expireAfterWrite(txStatusProperties.getExpireAfter())
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        webhookEventBus.subscribe("tx-status", WebhookEventDtoV1.AddressActivityEvent.class, this::onActivity,
+                this::onOverrun);
+    }
+
+    /**
+     * Hash of a raw transaction, as computed by the node.
+     */
+    public static Hash hashOf(String hexData) {
+        return Hash.wrap(sha3(Bytes.fromHexString(hexData).toArrayUnsafe()));
+    }
+
+    /**
+     * Starts tracking a transaction accepted by the mempool.
+     */
+    public Hash track(String hexData) {
+        Hash hash = hashOf(hexData);
+        entries.asMap().putIfAbsent(hash, new Entry(TxStatus.PENDING, null, null, Instant.now()));
+        return hash;
+    }
+
+    public List<TxStatusDtoV1> getStatuses(Collection<Hash> hashes) {
+        if (hashes.isEmpty() || hashes.size() > txStatusProperties.getMaxHashesPerRequest()) {
+            throw new GEValidationException("A status request asks for between 1 and "
+                    + txStatusProperties.getMaxHashesPerRequest() + " transactions");
+        }
+        Long height = null;
+        int fallbacks = 0;
+        List<TxStatusDtoV1> result = new ArrayList<>(hashes.size());
+        for (Hash hash : hashes) {
+            Entry entry = entries.getIfPresent(hash);
+            // Past the cap, unknown hashes stay UNKNOWN and stale ones keep their last status
+            if ((entry == null || isStale(entry)) && fallbacks < txStatusProperties.getMaxFallbacksPerRequest()) {
+                if (height == null) {
+                    height = currentHeight();
+                }
+                fallbacks++;
+                entry = fallback(hash, entry, height);
+            }
+            if (entry == null) {
+                result.add(new TxStatusDtoV1(hash, TxStatus.UNKNOWN, null, null, null));
+                continue;
+            }
+            Long confirmations = null;
+            if (entry.status() == TxStatus.CONFIRMED && entry.blockHeight() != null) {
+                if (height == null) {
+                    height = currentHeight();
+                }
+                confirmations = Math.max(height - entry.blockHeight() + 1, 1);
+            }
+            result.add(new TxStatusDtoV1(hash, entry.status(), entry.blockHeight(), entry.blockHash(),
+                    confirmations));
+        }
+        return result;
+    }
+
+    private void onActivity(WebhookEventDtoV1.AddressActivityEvent activity) {
+        if (activity.data() == null || activity.data().getTx() == null || activity.status() == null) {
+            return;
+        }
+        TxDtoV1 tx = activity.data().getTx();
+        if (tx.getHash() == null) {
+            return;
+        }
+        Hash txHash = Hash.fromHexString(tx.getHash());
+        Instant now = Instant.now();
+        entries.asMap().computeIfPresent(txHash, (hash, entry) -> switch (activity.status()) {
+            case CONFIRMED -> new Entry(TxStatus.CONFIRMED, tx.getBlockHeight(),
+                    tx.getBlockHash() != null ? Hash.fromHexString(tx.getBlockHash()) : null, now);
+            case REVERTED -> new Entry(TxStatus.PENDING, null, null, now);
+            // Webhooks may arrive out of order, a confirmation is final until reverted
+            case PENDING -> entry.status() == TxStatus.CONFIRMED ? entry
+                    : new Entry(TxStatus.PENDING, null, null, now);
+            case DROPPED -> entry.status() == TxStatus.CONFIRMED ? entry
+                    : new Entry(TxStatus.DROPPED, null, null, now);
+            case REPLACED -> entry.status() == TxStatus.CONFIRMED ? entry
+                    : new Entry(TxStatus.REPLACED, null, null, now);
+        });
+    }
+
+    private void onOverrun() {
+        log.warn("Transaction status updates were lost, pending transactions are checked at the node.");
+        entries.asMap().replaceAll((hash, entry) -> entry.status() == TxStatus.PENDING
+                ? new Entry(TxStatus.PENDING, null, null, Instant.EPOCH)
+                : entry);
+    }
+
+    private boolean isStale(Entry entry) {
+        return entry.status() == TxStatus.PENDING
+                && entry.checkedAt().plus(txStatusProperties.getFallbackAfter()).isBefore(Instant.now());
+    }
+
+    private Entry fallback(Hash hash, Entry entry, long height) {
+        Long confirmations;
+        try {
+            confirmations = explorerNodeService.getTxConfirmationsByHash(hash);
+        } catch (GENotFoundException e) {
+            // Not mined (or unknown to the node), one missing hash must not fail the batch
+            confirmations = null;
+        }
+        if (confirmations == null || confirmations <= 0) {
+            if (entry == null) {
+                return null;
+            }
+            Entry checked = new Entry(entry.status(), entry.blockHeight(), entry.blockHash(), Instant.now());
+            entries.asMap().replace(hash, entry, checked);
+            return checked;
+        }
+        Entry confirmed = new Entry(TxStatus.CONFIRMED, height - confirmations + 1, null, Instant.now());
+        if (entry == null) {
+            entries.asMap().putIfAbsent(hash, confirmed);
+        } else {
+            entries.asMap().replace(hash, entry, confirmed);
+        }
+        return confirmed;
+    }
+
+    private long currentHeight() {
+        ChainTipService.Tip tip = chainTipService.getTip();
+        return tip != null ? tip.height() : blockchainNodeService.getLatestBlockHeight();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Address;
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1;
+import global.goldenera.wallet.api.core.v1.wallet.dtos.WalletUpdateDtoV1.UpdateType;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BlockHeaderDtoV1;
+import global.goldenera.wallet.client.node.model.v1.TxDtoV1;
+import global.goldenera.wallet.enums.WebhookTxStatus;
+import global.goldenera.wallet.service.webhook.WebhookEventBus;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns webhook events into wallet updates and hands them to the listeners
+ * watching the affected addresses.
+ * <p>
+ * Listeners are indexed by address, so the fan-out of an event costs one map
+ * lookup per affected address regardless of the number of listeners. Every
+ * listener receives NEW_BLOCK and RESYNC, global listeners receive all
+ * updates. Listeners are called on the event bus thread and must not block.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WalletUpdateService {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onUpdate(WalletUpdateDtoV1 update);
+    }
+
+    WebhookEventBus webhookEventBus;
+
+    Set<Listener> listeners = ConcurrentHashMap.newKeySet();
+    Set<Listener> globalListeners = ConcurrentHashMap.newKeySet();
+    Map<Address, Set<Listener>> listenersByAddress = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        webhookEventBus.subscribe("wallet-updates", WebhookEventDtoV1.class, this::onEvent,
+                () -> broadcast(new WalletUpdateDtoV1(UpdateType.RESYNC, null, null, null, null, null)));
+    }
+
+    public void addGlobalListener(Listener listener) {
+        globalListeners.add(listener);
+    }
+
+    public void addListener(Listener listener, Collection<Address> addresses) {
+        listeners.add(listener);
+        watch(listener, addresses);
+    }
+
+    public void removeListener(Listener listener, Collection<Address> addresses) {
+        unwatch(listener, addresses);
+        listeners.remove(listener);
+    }
+
+    public void watch(Listener listener, Collection<Address> addresses) {
+        for (Address address : addresses) {
+            listenersByAddress.computeIfAbsent(address, k -> ConcurrentHashMap.newKeySet()).add(listener);
+        }
+    }
+
+    public void unwatch(Listener listener, Collection<Address> addresses) {
+        for (Address address : addresses) {
+            listenersByAddress.computeIfPresent(address, (k, watching) -> {
+                watching.remove(listener);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+    }
+
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    private void onEvent(WebhookEventDtoV1 event) {
+        switch (event) {
+            case WebhookEventDtoV1.NewBlockEvent newBlock -> {
+                BlockHeaderDtoV1 header = newBlock.data() != null ? newBlock.data().getHeader() : null;
+                if (header != null) {
+                    broadcast(new WalletUpdateDtoV1(UpdateType.NEW_BLOCK, null, null, null, header.getHeight(),
+                            header.getHash() != null ? Hash.fromHexString(header.getHash()) : null));
+                }
+            }
+            case WebhookEventDtoV1.AddressActivityEvent activity -> {
+                if (activity.data() != null && activity.data().getTx() != null && activity.status() != null) {
+                    toUpdates(activity.data().getTx(), activity).forEach(this::dispatch);
+                }
+            }
+            case WebhookEventDtoV1.ReorgEvent reorg ->
+                broadcast(new WalletUpdateDtoV1(UpdateType.RESYNC, null, null, null, reorg.newHeight(), null));
+        }
+    }
+
+    private static List<WalletUpdateDtoV1> toUpdates(TxDtoV1 tx, WebhookEventDtoV1.AddressActivityEvent activity) {
+        UpdateType transferUpdate = switch (activity.status()) {
+            case PENDING -> UpdateType.NEW_PENDING;
+            case CONFIRMED -> UpdateType.CONFIRMED;
+            case DROPPED, REPLACED, REVERTED -> UpdateType.DROPPED;
+        };
+        boolean balanceChanged = switch (activity.status()) {
+            case CONFIRMED, REVERTED -> true;
+            default -> false;
+        };
+        // The sender's balance is shown net of pending outgoing transfers
+        boolean senderBalanceChanged = switch (activity.status()) {
+            case PENDING, DROPPED, REPLACED -> true;
+            default -> balanceChanged;
+        };
+        Hash txHash = tx.getHash() != null ? Hash.fromHexString(tx.getHash()) : null;
+        Address tokenAddress = tx.getTokenAddress() != null ? Address.fromHexString(tx.getTokenAddress()) : null;
+        Long blockHeight = activity.status() == WebhookTxStatus.CONFIRMED ? tx.getBlockHeight() : null;
+
+        List<WalletUpdateDtoV1> updates = new ArrayList<>(4);
+        String[] parties = { tx.getSender(), tx.getRecipient() };
+        for (int i = 0; i < parties.length; i++) {
+            if (parties[i] == null) {
+                continue;
+            }
+            Address address = Address.fromHexString(parties[i]);
+            updates.add(new WalletUpdateDtoV1(transferUpdate, address, tokenAddress, txHash, blockHeight, null));
+            if (i == 0 ? senderBalanceChanged : balanceChanged) {
+                updates.add(new WalletUpdateDtoV1(UpdateType.BALANCE_CHANGED, address, tokenAddress, txHash,
+                        blockHeight, null));
+            }
+        }
+        return updates;
+    }
+
+    private void dispatch(WalletUpdateDtoV1 update) {
+        globalListeners.forEach(listener -> notify(listener, update));
+        Set<Listener> watching = listenersByAddress.get(update.address());
+        if (watching != null) {
+            watching.forEach(listener -> notify(listener, update));
+        }
+    }
+
+    private void broadcast(WalletUpdateDtoV1 update) {
+        globalListeners.forEach(listener -> notify(listener, update));
+        listeners.forEach(listener -> notify(listener, update));
+    }
+
+    private static void notify(Listener listener, WalletUpdateDtoV1 update) {
+        try {
+            listener.onUpdate(update);
+        } catch (Exception e) {
+            log.debug("Wallet update listener failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.system;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.client.node.model.v1.BlockHeaderDtoV1;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Chain tip as seen through NEW_BLOCK webhooks, together with the hashes of
+ * the most recent blocks. The hashes let a reorg be traced back to the block
+ * where our view and the node's canonical chain diverged.
+ * <p>
+ * It also tracks the highest height up to which every block has been seen, so
+ * blocks whose webhook got lost can be backfilled.
+ */
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class ChainTipService {
+
+    public static final int RECENT_BLOCKS = 256;
+
+    public record Tip(long height, Hash hash, Instant timestamp) {
+    }
+
+    /**
+     * Inclusive range of heights that have not been seen.
+     */
+    public record Gap(long fromHeight, long toHeight) {
+    }
+
+    NavigableMap<Long, Hash> recentHashes = new ConcurrentSkipListMap<>();
+    AtomicReference<Tip> tip = new AtomicReference<>();
+
+    /**
+     * Heights seen above the contiguous height, guarded by this.
+     */
+    NavigableSet<Long> seenAboveContiguous = new TreeSet<>();
+    @NonFinal
+    long contiguousHeight = -1;
+
+    public void onNewBlock(BlockHeaderDtoV1 header) {
+        if (header == null || header.getHeight() == null || header.getHash() == null) {
+            return;
+        }
+        Hash hash = Hash.fromHexString(header.getHash());
+        Instant timestamp = header.getTimestamp() != null ? header.getTimestamp().toInstant() : null;
+        recentHashes.put(header.getHeight(), hash);
+        while (recentHashes.size() > RECENT_BLOCKS) {
+            recentHashes.pollFirstEntry();
+        }
+        tip.accumulateAndGet(new Tip(header.getHeight(), hash, timestamp),
+                (current, candidate) -> current == null || candidate.height() >= current.height() ? candidate
+                        : current);
+        markSeen(header.getHeight());
+    }
+
+    /**
+     * Forgets every block above the fork height, the tip moves back to the fork.
+     */
+    public void rollbackTo(long forkHeight) {
+        recentHashes.tailMap(forkHeight, false).clear();
+        tip.updateAndGet(current -> {
+            if (current == null || current.height() <= forkHeight) {
+                return current;
+            }
+            Hash forkHash = recentHashes.get(forkHeight);
+            return forkHash != null ? new Tip(forkHeight, forkHash, null) : null;
+        });
+        synchronized (this) {
+            seenAboveContiguous.tailSet(forkHeight, false).clear();
+            if (contiguousHeight > forkHeight) {
+                contiguousHeight = forkHeight;
+            }
+        }
+    }
+
+    public Tip getTip() {
+        return tip.get();
+    }
+
+    public Hash getRecordedHash(long height) {
+        return recentHashes.get(height);
+    }
+
+    public Long getLowestRecordedHeight() {
+        return recentHashes.isEmpty() ? null : recentHashes.firstKey();
+    }
+
+    /**
+     * Highest height up to which every block has been seen, or {@code null}
+     * before the first block.
+     */
+    public synchronized Long getContiguousHeight() {
+        return contiguousHeight < 0 ? null : contiguousHeight;
+    }
+
+    /**
+     * Ranges of unseen heights between the contiguous height and
+     * {@code upToHeight}, lowest first, covering at most {@code maxBlocks}
+     * heights.
+     */
+    public synchronized List<Gap> getGaps(long upToHeight, int maxBlocks) {
+        List<Gap> gaps = new ArrayList<>();
+        if (contiguousHeight < 0) {
+            return gaps;
+        }
+        long next = contiguousHeight + 1;
+        long remaining = maxBlocks;
+        for (Long seen : seenAboveContiguous) {
+            if (next > upToHeight || remaining <= 0) {
+                return gaps;
+            }
+            if (seen > next) {
+                long to = Math.min(Math.min(seen - 1, upToHeight), next + remaining - 1);
+                gaps.add(new Gap(next, to));
+                remaining -= to - next + 1;
+            }
+            next = seen + 1;
+        }
+        if (next <= upToHeight && remaining > 0) {
+            gaps.add(new Gap(next, Math.min(upToHeight, next + remaining - 1)));
+        }
+        return gaps;
+    }
+
+    private synchronized void markSeen(long height) {
+        if (contiguousHeight < 0) {
+            contiguousHeight = height;
+            return;
+        }
+        if (height <= contiguousHeight) {
+            return;
+        }
+        seenAboveContiguous.add(height);
+        while (!seenAboveContiguous.isEmpty() && seenAboveContiguous.first() == contiguousHeight + 1) {
+            contiguousHeight = seenAboveContiguous.pollFirst();
+        }
+    }
+}
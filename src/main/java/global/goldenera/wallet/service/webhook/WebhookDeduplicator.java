@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.webhook;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import global.goldenera.cryptoj.datatypes.Hash;
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.enums.WebhookEventType;
+import global.goldenera.wallet.enums.WebhookTxStatus;
+import global.goldenera.wallet.properties.WebhookIngestionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Drops webhook events that were already accepted, e.g. after a redelivery
+ * by the node.
+ * <p>
+ * An event is identified by its type, tx or block hash, status and, for
+ * transactions, the block it was mined in, so a transaction confirmed in
+ * another block after a reorg is not mistaken for a redelivery. Accepting a
+ * revert frees the claims of the transaction's earlier pending and confirmed
+ * events, which the node sends again if the transaction comes back.
+ */
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WebhookDeduplicator {
+
+    public record Key(WebhookEventType type, Hash hash, WebhookTxStatus status, Hash blockHash) {
+    }
+
+    Cache<Key, Boolean> accepted;
+    Counter duplicates;
+
+    public WebhookDeduplicator(WebhookIngestionProperties webhookIngestionProperties, MeterRegistry meterRegistry) {
+        this.accepted = Caffeine.newBuilder()
+                .maximumSize(webhookIngestionProperties.getDedupMaxEntries())
+                .expireAfterWrite(webhookIngestionProperties.getDedupTtl())
+                .build();
+        this.duplicates = Counter.builder("ge.webhook.duplicates")
+                .description("Webhook events dropped as already accepted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identity of the event, or {@code null} if it carries no hash to
+     * deduplicate on.
+     */
+    public Key keyOf(WebhookEventDtoV1 event) {
+        return switch (event) {
+            case WebhookEventDtoV1.NewBlockEvent newBlock -> newBlock.data() != null
+                    && newBlock.data().getHeader() != null && newBlock.data().getHeader().getHash() != null
+                            ? new Key(event.type(), Hash.fromHexString(newBlock.data().getHeader().getHash()), null,
+                                    null)
+                            : null;
+            case WebhookEventDtoV1.AddressActivityEvent activity -> activity.data() != null
+                    && activity.data().getTx() != null && activity.data().getTx().getHash() != null
+                            ? new Key(event.type(), Hash.fromHexString(activity.data().getTx().getHash()),
+                                    activity.status(),
+                                    activity.data().getTx().getBlockHash() != null
+                                            ? Hash.fromHexString(activity.data().getTx().getBlockHash())
+                                            : null)
+                            : null;
+            case WebhookEventDtoV1.ReorgEvent reorg -> reorg.newHash() != null
+                    ? new Key(event.type(), reorg.newHash(), null, null)
+                    : null;
+        };
+    }
+
+    /**
+     * Claims the key for processing.
+     *
+     * @return false if the key was already claimed, the event is a duplicate
+     */
+    public boolean tryClaim(Key key) {
+        if (accepted.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            duplicates.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reports a claimed event that was accepted for processing. Called only
+     * once the delivery was accepted, a refused delivery changes nothing.
+     */
+    public void onAccepted(Key key) {
+        if (key.type() != WebhookEventType.ADDRESS_ACTIVITY) {
+            return;
+        }
+        if (key.status() == WebhookTxStatus.REVERTED) {
+            accepted.invalidate(new Key(key.type(), key.hash(), WebhookTxStatus.PENDING, null));
+            accepted.invalidate(new Key(key.type(), key.hash(), WebhookTxStatus.CONFIRMED, key.blockHash()));
+        } else if (key.status() == WebhookTxStatus.CONFIRMED) {
+            accepted.invalidate(new Key(key.type(), key.hash(), WebhookTxStatus.REVERTED, key.blockHash()));
+        }
+    }
+
+    /**
+     * Gives up a claim whose event was not accepted or not processed after all,
+     * so a redelivery is processed.
+     */
+    public void release(Key key) {
+        accepted.invalidate(key);
+    }
+}
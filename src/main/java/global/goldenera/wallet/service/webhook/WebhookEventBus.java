@@ -0,0 +1,221 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.webhook;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.properties.WebhookIngestionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process fan-out of processed webhook events.
+ * <p>
+ * Events are published into a ring of preallocated slots without locks. Every
+ * subscriber reads the ring on its own virtual thread with its own sequence,
+ * publishers never wait for subscribers. A subscriber that falls a full ring
+ * behind is moved forward, loses the overwritten events and is told so through
+ * its overrun callback, so a slow subscriber cannot hold up the others.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WebhookEventBus {
+
+    /**
+     * Handle of a subscription.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final class Slot {
+        volatile long sequence = -1;
+        volatile WebhookEventDtoV1 event;
+    }
+
+    Slot[] slots;
+    int mask;
+    AtomicLong cursor = new AtomicLong(-1);
+    List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+    MeterRegistry meterRegistry;
+
+    public WebhookEventBus(WebhookIngestionProperties webhookIngestionProperties, MeterRegistry meterRegistry) {
+        int capacity = Integer.highestOneBit(Math.max(2, webhookIngestionProperties.getBusCapacity() * 2 - 1));
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void publish(WebhookEventDtoV1 event) {
+        long sequence = cursor.incrementAndGet();
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.sequence = -1;
+        slot.event = event;
+        slot.sequence = sequence;
+        for (Subscriber<?> subscriber : subscribers) {
+            LockSupport.unpark(subscriber.thread);
+        }
+    }
+
+    /**
+     * Subscribes to all events of the given type published from now on.
+     *
+     * @param name
+     *            Subscriber name, used for the thread and metrics
+     * @param type
+     *            Event type to receive, {@code WebhookEventDtoV1.class} for all
+     * @param handler
+     *            Called in publish order on the subscriber's own thread
+     * @param onOverrun
+     *            Called after events were lost because the subscriber fell
+     *            behind
+     */
+    public <T extends WebhookEventDtoV1> Subscription subscribe(String name, Class<T> type, Consumer<T> handler,
+            Runnable onOverrun) {
+        Subscriber<T> subscriber = new Subscriber<>(name, type, handler, onOverrun);
+        subscribers.add(subscriber);
+        subscriber.start();
+        return subscriber;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::cancel);
+    }
+
+    @FieldDefaults(level = PRIVATE)
+    private final class Subscriber<T extends WebhookEventDtoV1> implements Subscription {
+
+        final String name;
+        final Class<T> type;
+        final Consumer<T> handler;
+        final Runnable onOverrun;
+        final Counter overrunCounter;
+        final Meter lagGauge;
+        volatile long sequence = cursor.get();
+        volatile boolean running = true;
+        volatile Thread thread;
+
+        Subscriber(String name, Class<T> type, Consumer<T> handler, Runnable onOverrun) {
+            this.name = name;
+            this.type = type;
+            this.handler = handler;
+            this.onOverrun = onOverrun;
+            this.overrunCounter = Counter.builder("ge.webhook.bus.overrun")
+                    .description("Events a subscriber lost by falling a full ring behind")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            this.lagGauge = Gauge.builder("ge.webhook.bus.lag", this, s -> cursor.get() - s.sequence)
+                    .description("Events published but not yet read by a subscriber")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            // Assigned before it runs, so no publish can miss unparking it
+            thread = Thread.ofVirtual().name("event-bus-" + name).unstarted(this::run);
+            thread.start();
+        }
+
+        @Override
+        public void cancel() {
+            running = false;
+            subscribers.remove(this);
+            meterRegistry.remove(overrunCounter);
+            meterRegistry.remove(lagGauge);
+            LockSupport.unpark(thread);
+        }
+
+        private void run() {
+            while (running) {
+                long next = sequence + 1;
+                long published = cursor.get();
+                if (published - next >= slots.length) {
+                    skipOverrun(next, published);
+                    continue;
+                }
+                Slot slot = slots[(int) (next & mask)];
+                if (slot.sequence != next) {
+                    // not published yet, or overwritten, which the cursor check
+                    // catches on the next round. Publish and cancel unpark after
+                    // writing, so the loop re-checks both after every wake-up.
+                    if (slot.sequence < next) {
+                        LockSupport.park(this);
+                    }
+                    continue;
+                }
+                WebhookEventDtoV1 event = slot.event;
+                if (slot.sequence != next) {
+                    continue;
+                }
+                sequence = next;
+                if (type.isInstance(event)) {
+                    deliver(type.cast(event));
+                }
+            }
+        }
+
+        /**
+         * Moves the sequence half a ring behind the cursor, leaving room before
+         * the next overrun.
+         */
+        private void skipOverrun(long next, long published) {
+            long resumeAt = published - slots.length / 2;
+            overrunCounter.increment(resumeAt - next + 1);
+            sequence = resumeAt;
+            log.warn("Event bus subscriber {} fell behind, skipped {} events.", name, resumeAt - next + 1);
+            try {
+                onOverrun.run();
+            } catch (Exception e) {
+                log.error("Overrun handling of event bus subscriber {} failed", name, e);
+            }
+        }
+
+        private void deliver(T event) {
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                log.error("Event bus subscriber {} failed on {} event", name, event.type(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.webhook;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.client.node.model.v1.BlockchainBlockHeaderDtoV1;
+import global.goldenera.wallet.service.cache.CacheInvalidationService;
+import global.goldenera.wallet.service.system.ChainTipService;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Applies a verified webhook event to the wallet state.
+ * <p>
+ * Cache invalidation and the chain tip are updated in delivery order before
+ * the event is published on the {@link WebhookEventBus}, reorg handling relies
+ * on both being in step. Everything else subscribes to the bus.
+ */
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WebhookEventProcessor {
+
+    CacheInvalidationService cacheInvalidationService;
+    ChainTipService chainTipService;
+    WebhookEventBus webhookEventBus;
+
+    public void process(WebhookEventDtoV1 event) {
+        cacheInvalidationService.onEvent(event);
+        if (event instanceof WebhookEventDtoV1.NewBlockEvent newBlock) {
+            BlockchainBlockHeaderDtoV1 header = newBlock.data();
+            if (header != null) {
+                chainTipService.onNewBlock(header.getHeader());
+            }
+        }
+        webhookEventBus.publish(event);
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.webhook;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.enums.WebhookEventType;
+import global.goldenera.wallet.properties.WebhookIngestionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-process queue between the webhook endpoint and the event
+ * processing.
+ * <p>
+ * Every event type has its own lane with a fixed number of workers and a
+ * capacity. A delivery is accepted only if all of its events fit, otherwise it
+ * is refused as a whole and the node retries it later. REORG events share the
+ * NEW_BLOCK lane, as both move the chain tip and must stay in order; with a
+ * single worker that lane also keeps blocks in delivery order.
+ * <p>
+ * Each worker of a lane has its own queue. Address activity is routed by
+ * transaction hash, so the events of one transaction are processed in delivery
+ * order even when the lane has several workers. A REORG is a barrier for the
+ * address activity: it is processed once the activity received before it is
+ * done, and activity received after it waits until it is done.
+ * <p>
+ * Accepted deliveries were acknowledged to the node, so on shutdown new
+ * deliveries are refused and the queues are drained before the workers stop.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WebhookIngestionService {
+
+    /**
+     * Queued event, or a barrier marker without event in the queues of the
+     * address activity lane.
+     */
+    private record Envelope(WebhookEventDtoV1 event, WebhookDeduplicator.Key key, long receivedAtNanos,
+            Barrier barrier) {
+    }
+
+    /**
+     * Ordering of one REORG against the address activity workers.
+     *
+     * @param arrived
+     *            counted down by every activity worker reaching the barrier
+     * @param done
+     *            counted down once the REORG was processed
+     */
+    private record Barrier(CountDownLatch arrived, CountDownLatch done) {
+    }
+
+    private record Lane(WebhookEventType type, List<BlockingQueue<Envelope>> queues, int capacity,
+            Semaphore permits, List<Thread> workers) {
+
+        BlockingQueue<Envelope> queueOf(WebhookEventDtoV1 event) {
+            if (queues.size() > 1 && event instanceof WebhookEventDtoV1.AddressActivityEvent activity
+                    && activity.data() != null && activity.data().getTx() != null
+                    && activity.data().getTx().getHash() != null) {
+                String txHash = activity.data().getTx().getHash().toLowerCase();
+                return queues.get(Math.floorMod(txHash.hashCode(), queues.size()));
+            }
+            return queues.getFirst();
+        }
+
+        int depth() {
+            return queues.stream().mapToInt(BlockingQueue::size).sum();
+        }
+
+        /**
+         * True if no event is queued or being processed, permits are only
+         * returned once an event was processed.
+         */
+        boolean isIdle() {
+            return permits.availablePermits() == capacity;
+        }
+    }
+
+    WebhookIngestionProperties webhookIngestionProperties;
+    WebhookEventProcessor webhookEventProcessor;
+    WebhookDeduplicator webhookDeduplicator;
+    WebhookMetrics webhookMetrics;
+    Map<WebhookEventType, Lane> lanes = new EnumMap<>(WebhookEventType.class);
+    /**
+     * Serializes the hand-over to the queues, so barriers are queued in the
+     * same order on every lane.
+     */
+    Object handOverLock = new Object();
+
+    Timer lagTimer;
+    Timer processingTimer;
+    Counter rejectedCounter;
+    Counter failedCounter;
+
+    @NonFinal
+    volatile boolean accepting = true;
+
+    public WebhookIngestionService(WebhookIngestionProperties webhookIngestionProperties,
+            WebhookEventProcessor webhookEventProcessor, WebhookDeduplicator webhookDeduplicator,
+            WebhookMetrics webhookMetrics, MeterRegistry meterRegistry) {
+        this.webhookIngestionProperties = webhookIngestionProperties;
+        this.webhookEventProcessor = webhookEventProcessor;
+        this.webhookDeduplicator = webhookDeduplicator;
+        this.webhookMetrics = webhookMetrics;
+        this.lagTimer = Timer.builder("ge.webhook.queue.lag")
+                .description("Time between receipt of an event and the start of its processing")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("ge.webhook.processing")
+                .description("Processing time of a single event")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ge.webhook.queue.rejected")
+                .description("Deliveries refused because a lane was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ge.webhook.processing.failed")
+                .register(meterRegistry);
+
+        for (WebhookEventType type : WebhookEventType.values()) {
+            if (type == WebhookEventType.REORG) {
+                continue;
+            }
+            WebhookIngestionProperties.Lane config = webhookIngestionProperties.getLanes().get(type);
+            if (config == null) {
+                throw new IllegalStateException("Missing webhook ingestion lane for " + type);
+            }
+            Lane lane = new Lane(type, new ArrayList<>(), config.getQueueCapacity(),
+                    new Semaphore(config.getQueueCapacity()), new ArrayList<>());
+            for (int i = 0; i < config.getWorkers(); i++) {
+                BlockingQueue<Envelope> queue = new LinkedBlockingQueue<>();
+                lane.queues().add(queue);
+                lane.workers().add(Thread.ofVirtual()
+                        .name("webhook-" + type.name().toLowerCase() + "-" + i)
+                        .start(() -> work(lane, queue)));
+            }
+            Gauge.builder("ge.webhook.queue.depth", lane, Lane::depth)
+                    .description("Events waiting for processing")
+                    .tag("lane", type.name())
+                    .register(meterRegistry);
+            lanes.put(type, lane);
+        }
+    }
+
+    /**
+     * Enqueues all events of one delivery. Events that were accepted before are
+     * skipped.
+     *
+     * @return false if any lane has no room for its events or the service is
+     *         shutting down, nothing is enqueued then
+     */
+    public boolean enqueue(List<WebhookEventDtoV1> events) {
+        return enqueue(events, System.nanoTime());
+    }
+
+    /**
+     * @param receivedAt
+     *            {@link System#nanoTime()} at receipt of the delivery
+     * @see #enqueue(List)
+     */
+    public boolean enqueue(List<WebhookEventDtoV1> events, long receivedAt) {
+        Lane activityLane = lanes.get(WebhookEventType.ADDRESS_ACTIVITY);
+        List<Envelope> envelopes = new ArrayList<>(events.size());
+        Map<WebhookEventType, Integer> countByLane = new EnumMap<>(WebhookEventType.class);
+        List<WebhookDeduplicator.Key> claimed = new ArrayList<>();
+        for (WebhookEventDtoV1 event : events) {
+            WebhookDeduplicator.Key key = webhookDeduplicator.keyOf(event);
+            if (key != null) {
+                if (!webhookDeduplicator.tryClaim(key)) {
+                    continue;
+                }
+                claimed.add(key);
+            }
+            Barrier barrier = event.type() == WebhookEventType.REORG
+                    ? new Barrier(new CountDownLatch(activityLane.queues().size()), new CountDownLatch(1))
+                    : null;
+            envelopes.add(new Envelope(event, key, receivedAt, barrier));
+            countByLane.merge(laneOf(event.type()), 1, Integer::sum);
+        }
+
+        List<WebhookEventType> reserved = new ArrayList<>();
+        for (Map.Entry<WebhookEventType, Integer> entry : countByLane.entrySet()) {
+            if (!lanes.get(entry.getKey()).permits().tryAcquire(entry.getValue())) {
+                refuse(reserved, countByLane, claimed);
+                rejectedCounter.increment();
+                return false;
+            }
+            reserved.add(entry.getKey());
+        }
+        // Checked after reserving, so a shutdown either sees the permits taken or
+        // this delivery sees the shutdown
+        if (!accepting) {
+            refuse(reserved, countByLane, claimed);
+            return false;
+        }
+        claimed.forEach(webhookDeduplicator::onAccepted);
+        synchronized (handOverLock) {
+            for (Envelope envelope : envelopes) {
+                lanes.get(laneOf(envelope.event().type())).queueOf(envelope.event()).add(envelope);
+                if (envelope.barrier() != null) {
+                    Envelope marker = new Envelope(null, null, receivedAt, envelope.barrier());
+                    activityLane.queues().forEach(queue -> queue.add(marker));
+                }
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.nanoTime() + webhookIngestionProperties.getShutdownTimeout().toNanos();
+        try {
+            while (!lanes.values().stream().allMatch(Lane::isIdle) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int left = lanes.values().stream().mapToInt(lane -> lane.capacity() - lane.permits().availablePermits())
+                .sum();
+        if (left > 0) {
+            log.warn("Stopping webhook workers with {} accepted events not processed", left);
+        }
+        lanes.values().forEach(lane -> lane.workers().forEach(Thread::interrupt));
+    }
+
+    private void refuse(List<WebhookEventType> reserved, Map<WebhookEventType, Integer> countByLane,
+            List<WebhookDeduplicator.Key> claimed) {
+        reserved.forEach(type -> lanes.get(type).permits().release(countByLane.get(type)));
+        claimed.forEach(webhookDeduplicator::release);
+    }
+
+    private static WebhookEventType laneOf(WebhookEventType type) {
+        return type == WebhookEventType.REORG ? WebhookEventType.NEW_BLOCK : type;
+    }
+
+    private void work(Lane lane, BlockingQueue<Envelope> queue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Envelope envelope;
+            try {
+                envelope = queue.take();
+                if (envelope.event() == null) {
+                    // Hold the activity behind a REORG until it is processed
+                    envelope.barrier().arrived().countDown();
+                    envelope.barrier().done().await();
+                    continue;
+                }
+                if (envelope.barrier() != null) {
+                    envelope.barrier().arrived().await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long started = System.nanoTime();
+            lagTimer.record(started - envelope.receivedAtNanos(), TimeUnit.NANOSECONDS);
+            try {
+                webhookEventProcessor.process(envelope.event());
+                webhookMetrics.recordProcessed(envelope.event().type(), envelope.receivedAtNanos());
+            } catch (Exception e) {
+                failedCounter.increment();
+                if (envelope.key() != null) {
+                    // Let a redelivery of the event try again
+                    webhookDeduplicator.release(envelope.key());
+                }
+                log.error("Failed to process {} webhook event", envelope.event().type(), e);
+            } finally {
+                if (envelope.barrier() != null) {
+                    envelope.barrier().done().countDown();
+                }
+                lane.permits().release();
+                processingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
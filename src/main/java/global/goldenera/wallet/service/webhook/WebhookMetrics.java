@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.service.webhook;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import global.goldenera.wallet.api.core.v1.webhook.dtos.WebhookEventDtoV1;
+import global.goldenera.wallet.enums.WebhookEventType;
+import global.goldenera.wallet.service.system.ChainTipService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Freshness of the webhook pipeline: how old events are when they arrive, how
+ * long they take until processed and how far the chain tip lags behind the
+ * wall clock.
+ */
+@Component
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class WebhookMetrics {
+
+    Map<WebhookEventType, Timer> delivery = new EnumMap<>(WebhookEventType.class);
+    Map<WebhookEventType, Timer> endToEnd = new EnumMap<>(WebhookEventType.class);
+    DistributionSummary batchSize;
+    Counter signatureFailures;
+    Counter deserializationFailures;
+
+    public WebhookMetrics(ChainTipService chainTipService, MeterRegistry meterRegistry) {
+        for (WebhookEventType type : WebhookEventType.values()) {
+            delivery.put(type, Timer.builder("ge.webhook.delivery.delay")
+                    .description("Time from the block or tx timestamp to receipt of the event")
+                    .tag("type", type.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            endToEnd.put(type, Timer.builder("ge.webhook.end_to_end")
+                    .description("Time from receipt of an event until it is fully processed")
+                    .tag("type", type.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.batchSize = DistributionSummary.builder("ge.webhook.batch.size")
+                .description("Events per webhook delivery")
+                .register(meterRegistry);
+        this.signatureFailures = Counter.builder("ge.webhook.rejected")
+                .description("Webhook deliveries refused before processing")
+                .tag("reason", "signature")
+                .register(meterRegistry);
+        this.deserializationFailures = Counter.builder("ge.webhook.rejected")
+                .description("Webhook deliveries refused before processing")
+                .tag("reason", "deserialization")
+                .register(meterRegistry);
+        Gauge.builder("ge.chain.tip.age", chainTipService, WebhookMetrics::tipAgeSeconds)
+                .description("Seconds since the timestamp of the latest known block")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void recordDelivery(List<WebhookEventDtoV1> events) {
+        batchSize.record(events.size());
+        Instant now = Instant.now();
+        for (WebhookEventDtoV1 event : events) {
+            OffsetDateTime timestamp = timestampOf(event);
+            if (timestamp != null) {
+                delivery.get(event.type()).record(Duration.between(timestamp.toInstant(), now));
+            }
+        }
+    }
+
+    public void recordProcessed(WebhookEventType type, long receivedAtNanos) {
+        endToEnd.get(type).record(System.nanoTime() - receivedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSignatureFailure() {
+        signatureFailures.increment();
+    }
+
+    public void recordDeserializationFailure() {
+        deserializationFailures.increment();
+    }
+
+    /**
+     * Block timestamp for NEW_BLOCK, tx timestamp for ADDRESS_ACTIVITY. Reorgs
+     * carry no timestamp.
+     */
+    private static OffsetDateTime timestampOf(WebhookEventDtoV1 event) {
+        return switch (event) {
+            case WebhookEventDtoV1.NewBlockEvent newBlock -> newBlock.data() != null
+                    && newBlock.data().getHeader() != null ? newBlock.data().getHeader().getTimestamp() : null;
+            case WebhookEventDtoV1.AddressActivityEvent activity -> activity.data() != null
+                    && activity.data().getTx() != null ? activity.data().getTx().getTimestamp() : null;
+            case WebhookEventDtoV1.ReorgEvent reorg -> null;
+        };
+    }
+
+    private static double tipAgeSeconds(ChainTipService chainTipService) {
+        ChainTipService.Tip tip = chainTipService.getTip();
+        if (tip == null || tip.timestamp() == null) {
+            return Double.NaN;
+        }
+        return Duration.between(tip.timestamp(), Instant.now()).toMillis() / 1000.0;
+    }
+}
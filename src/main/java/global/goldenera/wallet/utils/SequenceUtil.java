@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.utils;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class SequenceUtil {
+
+	/**
+	 * Allocates ids for bulk inserts from a sequence shared with Hibernate's
+	 * pooled optimizer. Every sequence value reserves the allocationSize ids
+	 * ending at it, exactly as the optimizer reads it, so the ids never collide
+	 * with ids Hibernate hands out.
+	 *
+	 * @param count
+	 *            Number of ids
+	 * @param allocationSize
+	 *            Increment of the sequence
+	 * @param nextValues
+	 *            Fetches the given number of sequence values
+	 */
+	public static Long[] allocateIds(int count, int allocationSize, IntFunction<List<Long>> nextValues) {
+		Long[] ids = new Long[count];
+		int filled = 0;
+		while (filled < count) {
+			int blocks = (count - filled + allocationSize - 1) / allocationSize;
+			for (Long hi : nextValues.apply(blocks)) {
+				// The first value of a fresh sequence reserves ids below 1
+				for (long id = Math.max(1, hi - allocationSize + 1); id <= hi && filled < count; id++) {
+					ids[filled++] = id;
+				}
+			}
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025-2030 The GoldenEraGlobal Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package global.goldenera.wallet.components;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import global.goldenera.wallet.components.WebhookSignatureVerifier.StreamingVerification;
+import global.goldenera.wallet.properties.NodeProperties;
+
+/**
+ * Webhook signature verification at 1 KiB and 64 KiB bodies: the pooled
+ * verifier on a byte array and on a stream, against the former per-request
+ * engine setup with a Base64 string comparison.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE, or
+ * {@code java -cp <test classpath> global.goldenera.wallet.components.WebhookSignatureVerifierBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class WebhookSignatureVerifierBenchmark {
+
+    private static final String SECRET = "benchmark-webhook-secret";
+
+    @Param({ "1024", "65536" })
+    int bodySize;
+
+    WebhookSignatureVerifier verifier;
+    byte[] body;
+    String timestamp;
+    String signature;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        NodeProperties nodeProperties = new NodeProperties();
+        nodeProperties.setWebhookSecretKey(SECRET);
+        verifier = new WebhookSignatureVerifier(nodeProperties);
+
+        body = new byte[bodySize];
+        new Random(42).nextBytes(body);
+        // Timestamps stay within the tolerance for a run of a few minutes
+        timestamp = Long.toString(Instant.now().getEpochSecond());
+        signature = Base64.getEncoder().encodeToString(newMac().doFinal(signedBytes()));
+    }
+
+    @Benchmark
+    public void verifyBytes() {
+        verifier.verify(body, timestamp, signature);
+    }
+
+    @Benchmark
+    public void verifyStream() throws IOException {
+        try (StreamingVerification verification = verifier.start(timestamp, signature)) {
+            InputStream verifiedBody = verification.wrap(new ByteArrayInputStream(body));
+            verifiedBody.transferTo(OutputStream.nullOutputStream());
+            verification.verify();
+        }
+    }
+
+    /**
+     * The verification before engines were pooled: a new engine per request and
+     * the signature compared as a Base64 string.
+     */
+    @Benchmark
+    public boolean baselinePerRequestEngine() throws GeneralSecurityException {
+        String calculated = Base64.getEncoder().encodeToString(newMac().doFinal(signedBytes()));
+        return calculated.equals(signature);
+    }
+
+    private byte[] signedBytes() {
+        byte[] prefix = (timestamp + ".").getBytes(StandardCharsets.UTF_8);
+        byte[] signed = new byte[prefix.length + body.length];
+        System.arraycopy(prefix, 0, signed, 0, prefix.length);
+        System.arraycopy(body, 0, signed, prefix.length, body.length);
+        return signed;
+    }
+
+    private static Mac newMac() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookSignatureVerifierBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}